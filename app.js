@@ -197,15 +197,38 @@ function showMainContent() {
   }
 }
 
+let nextCursor = null;
+let loadingMore = false;
+
 async function loadBets() {
+  nextCursor = null;
+  bets = [];
+  await fetchBets(false);
+}
+
+async function loadMoreBets() {
+  if (!nextCursor || loadingMore) return;
+  loadingMore = true;
+  try { await fetchBets(true); } finally { loadingMore = false; }
+}
+
+async function fetchBets(append) {
   try {
     const params = new URLSearchParams();
     const statusVal = document.getElementById('statusFilter')?.value || '';
     const searchVal = document.getElementById('searchInput')?.value.trim() || '';
     if (statusVal) params.set('status', statusVal);
-    if (searchVal) params.set('search', searchVal);
-    params.set('page', String(currentPage));
-    params.set('size', String(pageSize));
+    // Карточкам хватает краткой проекции: без описания, пользователей и голосов
+    params.set('fields', 'title,status,startDate,duration,creatorName,createdAt');
+    if (searchVal) {
+      params.set('search', searchVal);
+      params.set('page', String(currentPage));
+      params.set('size', String(pageSize));
+    } else {
+      // Лента без поиска листается по курсору: глубокие страницы стоят столько же, сколько первая
+      params.set('limit', String(pageSize));
+      if (append && nextCursor) params.set('after', nextCursor);
+    }
 
     const res = await fetch(`${API_BASE_URL}/bets?${params.toString()}`, {
       headers: { ...getAuthHeaders() }
@@ -216,7 +239,9 @@ async function loadBets() {
     }
     if (!res.ok) throw new Error(`HTTP ${res.status}`);
     const page = await res.json();
-    bets = Array.isArray(page) ? page : (page.content || []);
+    const items = Array.isArray(page) ? page : (page.content || []);
+    nextCursor = page.hasNext ? page.nextCursor : null;
+    bets = append ? bets.concat(items) : items;
     displayBets(bets);
   } catch (error) {
     console.error('Ошибка загрузки пари:', error);
@@ -225,6 +250,10 @@ async function loadBets() {
   }
 }
 
+window.addEventListener('scroll', () => {
+  if (window.innerHeight + window.scrollY >= document.body.offsetHeight - 300) loadMoreBets();
+});
+
 function displayBets(betsToShow) {
   const betsList = document.getElementById('betsContainer');
   betsList.innerHTML = '';
@@ -251,14 +280,11 @@ function createBetCard(bet) {
         <span class="badge bg-${getStatusColor(normalizedStatus)}">${statusText}</span>
       </div>
       <div class="card-body">
-        <p class="card-text">${bet.description || ''}</p>
         <div class="row text-muted small">
           <div class="col-6"><i class="fa-regular fa-calendar-days me-1"></i>${formatDate(bet.startDate)}</div>
           <div class="col-6"><i class="fa-regular fa-clock me-1"></i>${bet.duration}ч</div>
         </div>
-        <div class="mt-2"><small class="text-muted"><i class="fa-solid fa-user me-1"></i>Создатель: ${bet.creator?.email || ''}</small></div>
-        ${bet.participant ? `<div class="mt-1"><small class="text-muted"><i class="fa-solid fa-users me-1"></i>Участник: ${bet.participant.email}</small></div>` : ''}
-        ${bet.observer ? `<div class="mt-1"><small class="text-muted"><i class="fa-solid fa-eye me-1"></i>Наблюдатель: ${bet.observer.email}</small></div>` : ''}
+        <div class="mt-2"><small class="text-muted"><i class="fa-solid fa-user me-1"></i>Создатель: ${bet.creatorName || ''}</small></div>
       </div>
       <div class="card-footer"><small class="text-muted">Создано: ${formatDate(bet.createdAt)}</small></div>
     </div>`;
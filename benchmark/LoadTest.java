@@ -0,0 +1,185 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Генератор смешанной нагрузки для сравнения режимов потоков (см. run.sh).
+ * Запуск: {@code java LoadTest.java <baseUrl> <клиентов> <секунд> <доля записи, %>}.
+ * Каждый клиент — виртуальный поток, поэтому сам генератор не ограничивает параллельность.
+ * Чтение: карточка пари, страница ленты, комментарии; запись: комментарий или новое пари.
+ */
+public class LoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final int SEED_BETS = 50;
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080/api";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int writePercent = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        // Пользователи из /test/create-users; создатель пари — первый, комментируют все
+        List<String> tokens = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            String body = send(http, post(base + "/auth/login", null,
+                    "{\"email\":\"user" + i + "@test.com\",\"password\":\"password123\"}")).body();
+            Matcher matcher = TOKEN.matcher(body);
+            if (!matcher.find()) {
+                throw new IllegalStateException("Не удалось войти: " + body);
+            }
+            tokens.add(matcher.group(1));
+        }
+        List<Long> betIds = new ArrayList<>();
+        for (int i = 0; i < SEED_BETS; i++) {
+            betIds.add(createBet(http, base, tokens.get(0), "Seed " + i));
+        }
+
+        Map<String, Stats> stats = new ConcurrentHashMap<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                String token = tokens.get(c % tokens.size());
+                workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        long betId = betIds.get(random.nextInt(betIds.size()));
+                        String operation;
+                        HttpRequest request;
+                        if (random.nextInt(100) < writePercent) {
+                            if (random.nextInt(10) == 0) {
+                                operation = "POST /bets";
+                                request = post(base + "/bets", token, betJson("Load " + random.nextInt()));
+                            } else {
+                                operation = "POST /bets/{id}/comments";
+                                request = post(base + "/bets/" + betId + "/comments", token,
+                                        "{\"text\":\"load " + random.nextInt(1000) + "\"}");
+                            }
+                        } else {
+                            int pick = random.nextInt(3);
+                            if (pick == 0) {
+                                operation = "GET /bets/{id}";
+                                request = get(base + "/bets/" + betId, token);
+                            } else if (pick == 1) {
+                                operation = "GET /bets?limit=20";
+                                request = get(base + "/bets?limit=20&fields=title,status,startDate,creatorName", token);
+                            } else {
+                                operation = "GET /bets/{id}/comments";
+                                request = get(base + "/bets/" + betId + "/comments?limit=20", token);
+                            }
+                        }
+                        long started = System.nanoTime();
+                        int status;
+                        try {
+                            status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        stats.computeIfAbsent(operation, key -> new Stats())
+                                .record(System.nanoTime() - started, status);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        System.out.printf("clients=%d seconds=%d write=%d%%%n", clients, seconds, writePercent);
+        Stats total = new Stats();
+        new TreeMap<>(stats).forEach((operation, s) -> {
+            s.print(operation, seconds);
+            total.merge(s);
+        });
+        total.print("TOTAL", seconds);
+    }
+
+    private static long createBet(HttpClient http, String base, String token, String title) throws Exception {
+        String body = send(http, post(base + "/bets", token, betJson(title))).body();
+        Matcher matcher = ID.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Не удалось создать пари: " + body);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static String betJson(String title) {
+        String start = LocalDateTime.now().plusDays(1).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        return "{\"title\":\"" + title + "\",\"description\":\"load test\",\"startDate\":\"" + start + "\",\"duration\":2}";
+    }
+
+    private static HttpResponse<String> send(HttpClient http, HttpRequest request) throws Exception {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest post(String url, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static final class Stats {
+
+        private final List<Long> latencies = new ArrayList<>();
+        private final Map<Integer, LongAdder> statuses = new TreeMap<>();
+
+        synchronized void record(long nanos, int status) {
+            latencies.add(nanos);
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+        synchronized void merge(Stats other) {
+            latencies.addAll(other.latencies);
+            other.statuses.forEach((status, count) ->
+                    statuses.computeIfAbsent(status, key -> new LongAdder()).add(count.sum()));
+        }
+
+        synchronized void print(String operation, int seconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            System.out.printf("%-26s %8d req %8.1f rps  p50 %7.1f  p95 %7.1f  p99 %7.1f ms  %s%n",
+                    operation, sorted.length, (double) sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), statuses);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+#!/bin/bash
+# Сравнение платформенных и виртуальных потоков под смешанной нагрузкой чтения/записи.
+#
+#   ./benchmark/run.sh [клиентов] [секунд] [доля записи, %]
+#
+# Приложение запускается дважды (spring.threads.virtual.enabled=false/true) на одной БД-конфигурации.
+# По умолчанию — встроенная H2; для показательных чисел задайте PostgreSQL через BENCH_ARGS:
+#   BENCH_ARGS="--spring.datasource.url=jdbc:postgresql://localhost:5432/bets --spring.datasource.username=... \
+#               --spring.datasource.password=... --spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+# Проверка закреплений под конкуренцией за соединения — пул меньше числа клиентов и файловая БД:
+#   BENCH_JAVA_OPTS=-Djdk.tracePinnedThreads=short \
+#   BENCH_ARGS="--spring.datasource.url=jdbc:h2:file:./target/benchdb --spring.datasource.hikari.maximum-pool-size=2 \
+#               --spring.datasource.hikari.minimum-idle=2 --bets.detail-cache.ttl=20ms" ./benchmark/run.sh 200 20
+# Стеки закреплений попадают в target/benchmark-virtual-true.log.
+# Нужен JDK 21 (java в PATH).
+
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CLIENTS=${1:-400}
+SECONDS_PER_RUN=${2:-30}
+WRITE_PERCENT=${3:-20}
+PORT=${BENCH_PORT:-8080}
+BASE="http://localhost:${PORT}/api"
+
+if [ -z "${SKIP_BUILD:-}" ]; then
+    ./mvnw -B -q -DskipTests package
+fi
+
+run_mode() {
+    local virtual=$1
+    java ${BENCH_JAVA_OPTS:-} -jar target/betting-api-1.0.0.jar \
+        --server.port="$PORT" \
+        --spring.threads.virtual.enabled="$virtual" \
+        --spring.jpa.show-sql=false \
+        --logging.level.root=WARN \
+        --logging.level.com.betting=WARN \
+        --logging.level.org.springframework.security=WARN \
+        --rate-limit.enabled=false \
+        ${BENCH_ARGS:-} > "target/benchmark-virtual-${virtual}.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null" EXIT
+
+    for _ in $(seq 1 90); do
+        curl -sf "$BASE/actuator/health" > /dev/null && break
+        sleep 1
+    done
+    curl -sf -X POST "$BASE/test/create-users" > /dev/null
+
+    echo "=== spring.threads.virtual.enabled=$virtual"
+    java benchmark/LoadTest.java "$BASE" "$CLIENTS" "$SECONDS_PER_RUN" "$WRITE_PERCENT"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode false
+run_mode true
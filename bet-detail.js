@@ -86,6 +86,7 @@ async function loadBetDetails() {
                     displayBetDetails();
                     loadVotes();
                     loadComments();
+                    subscribeToBetEvents();
                 } catch (jsonError) {
                     console.error('Ошибка парсинга JSON:', jsonError);
                     showError('Ошибка загрузки данных пари');
@@ -102,6 +103,60 @@ async function loadBetDetails() {
     }
 }
 
+// Живые обновления через SSE: состояние пари и новые комментарии приходят без повторных запросов
+let betEvents = null;
+
+function subscribeToBetEvents() {
+    if (betEvents || !window.EventSource) {
+        return;
+    }
+    // EventSource не передаёт заголовки, поэтому токен идёт параметром
+    const url = `${API_BASE_URL}/bets/${betId}/events?access_token=${encodeURIComponent(authToken)}`;
+    betEvents = new EventSource(url);
+    let reconnecting = false;
+    
+    betEvents.addEventListener('bet', event => {
+        currentBet = JSON.parse(event.data);
+        displayBetDetails();
+        displayVotes(votesFromBet(currentBet));
+    });
+    
+    betEvents.addEventListener('comment', event => {
+        const comment = JSON.parse(event.data);
+        if (!loadedComments.some(existing => existing.id === comment.id)) {
+            loadedComments = [comment].concat(loadedComments);
+            displayComments(loadedComments);
+        }
+    });
+    
+    betEvents.addEventListener('deleted', () => {
+        betEvents.close();
+        showError('Пари удалено');
+    });
+    
+    // После обрыва EventSource переподключается сам; пропущенные изменения перечитываем
+    betEvents.onopen = () => {
+        if (reconnecting) {
+            reconnecting = false;
+            loadBetDetails();
+        }
+    };
+    betEvents.onerror = () => {
+        reconnecting = true;
+    };
+}
+
+// Голоса в формате /votes из карточки пари: votes — email -> WIN/LOSE
+function votesFromBet(bet) {
+    const votes = Object.entries(bet.votes || {});
+    const ownVote = currentUser ? (bet.votes || {})[currentUser.email] : undefined;
+    return {
+        forVotes: votes.filter(([, result]) => result === 'WIN').length,
+        againstVotes: votes.filter(([, result]) => result === 'LOSE').length,
+        userVote: ownVote === undefined ? null : ownVote === 'WIN'
+    };
+}
+
 // Отображение деталей пари
 function displayBetDetails() {
     // Основная информация
@@ -362,10 +417,17 @@ async function vote(voteFor) {
     }
 }
 
-// Загрузка комментариев
-async function loadComments() {
+// Загрузка комментариев: первая страница заменяет список, следующие (по курсору) дописываются в конец
+let commentsCursor = null;
+let loadedComments = [];
+
+async function loadComments(after = null) {
     try {
-        const response = await fetch(`${API_BASE_URL}/bets/${betId}/comments`, {
+        const params = new URLSearchParams({ limit: '20' });
+        if (after) {
+            params.set('after', after);
+        }
+        const response = await fetch(`${API_BASE_URL}/bets/${betId}/comments?${params}`, {
             method: 'GET',
             headers: {
                 'Authorization': `Bearer ${authToken}`,
@@ -377,8 +439,10 @@ async function loadComments() {
             const contentType = response.headers.get('content-type');
             if (contentType && contentType.includes('application/json')) {
                 try {
-                    const commentsData = await response.json();
-                    displayComments(commentsData);
+                    const commentsPage = await response.json();
+                    loadedComments = after ? loadedComments.concat(commentsPage.content) : commentsPage.content;
+                    commentsCursor = commentsPage.hasNext ? commentsPage.nextCursor : null;
+                    displayComments(loadedComments);
                 } catch (jsonError) {
                     console.error('Ошибка парсинга комментариев:', jsonError);
                 }
@@ -389,6 +453,19 @@ async function loadComments() {
     }
 }
 
+function loadMoreComments() {
+    if (commentsCursor) {
+        loadComments(commentsCursor);
+    }
+}
+
+// Комментарии вводят пользователи, поэтому текст экранируется перед вставкой в HTML
+function escapeHtml(value) {
+    const div = document.createElement('div');
+    div.textContent = value == null ? '' : String(value);
+    return div.innerHTML;
+}
+
 // Отображение комментариев
 function displayComments(comments) {
     const commentsSection = document.getElementById('commentsSection');
@@ -401,14 +478,17 @@ function displayComments(comments) {
     const commentsHtml = comments.map(comment => `
         <div class="border-bottom pb-2 mb-2">
             <div class="d-flex justify-content-between">
-                <strong>${comment.author.firstName} ${comment.author.lastName}</strong>
+                <strong>${comment.author ? escapeHtml(comment.author.firstName + ' ' + comment.author.lastName) : ''}</strong>
                 <small class="text-muted">${formatDate(comment.createdAt)}</small>
             </div>
-            <p class="mb-0">${comment.text}</p>
+            <p class="mb-0">${escapeHtml(comment.text)}</p>
         </div>
     `).join('');
     
-    commentsSection.innerHTML = commentsHtml;
+    const moreButton = commentsCursor
+        ? '<button class="btn btn-link btn-sm p-0" onclick="loadMoreComments()">Показать ещё</button>'
+        : '';
+    commentsSection.innerHTML = commentsHtml + moreButton;
 }
 
 // Добавление комментария
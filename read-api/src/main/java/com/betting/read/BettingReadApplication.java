@@ -0,0 +1,14 @@
+package com.betting.read;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@SpringBootApplication
+@EnableScheduling
+public class BettingReadApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(BettingReadApplication.class, args);
+    }
+}
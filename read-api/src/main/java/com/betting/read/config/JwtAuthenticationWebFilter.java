@@ -0,0 +1,79 @@
+package com.betting.read.config;
+
+import com.betting.read.dto.ErrorResponse;
+import com.betting.read.security.AuthenticatedUser;
+import com.betting.read.security.JwtVerifier;
+import com.betting.read.security.TokenVersionRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Аутентификация по Bearer-токену основного приложения. Как и там, все маршруты, кроме
+ * {@code /actuator/health} и CORS preflight, требуют токен; без действующего токена — 403.
+ * Пользователь кладётся в атрибут обмена {@link #PRINCIPAL_ATTRIBUTE}.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    public static final String PRINCIPAL_ATTRIBUTE = "authenticatedUser";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String HEALTH_PATH = "/actuator/health";
+
+    private final JwtVerifier jwtVerifier;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (HttpMethod.OPTIONS.equals(exchange.getRequest().getMethod()) || path.startsWith(HEALTH_PATH)) {
+            return chain.filter(exchange);
+        }
+
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        AuthenticatedUser user = authHeader != null && authHeader.startsWith(BEARER_PREFIX)
+                ? jwtVerifier.verify(authHeader.substring(BEARER_PREFIX.length()))
+                        .filter(tokenVersionRegistry::isCurrent)
+                        .orElse(null)
+                : null;
+        if (user == null) {
+            return reject(exchange.getResponse());
+        }
+        exchange.getAttributes().put(PRINCIPAL_ATTRIBUTE, user);
+        return chain.filter(exchange);
+    }
+
+    // Исключение из фильтра не доходит до ApiExceptionHandler, поэтому тело пишется здесь
+    private Mono<Void> reject(ServerHttpResponse response) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(ErrorResponse.builder()
+                    .status(HttpStatus.FORBIDDEN.value())
+                    .code("FORBIDDEN")
+                    .message("Доступ запрещён")
+                    .build());
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(HttpStatus.FORBIDDEN);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,65 @@
+package com.betting.read.controller;
+
+import com.betting.read.config.JwtAuthenticationWebFilter;
+import com.betting.read.dto.BetResponse;
+import com.betting.read.dto.CursorPageResponse;
+import com.betting.read.dto.VoteResponse;
+import com.betting.read.security.AuthenticatedUser;
+import com.betting.read.service.BetReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Чтение пари: те же маршруты и ответы, что у {@code BetController} основного приложения.
+ */
+@RestController
+@RequestMapping("/bets")
+@RequiredArgsConstructor
+public class BetReadController {
+
+    private final BetReadService betReadService;
+
+    @GetMapping
+    public Mono<Page<BetResponse>> getBets(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String search,
+            Pageable pageable) {
+        return betReadService.getBets(status, search, pageable);
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<CursorPageResponse<BetResponse>> getBetFeed(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false, defaultValue = "createdAt") String orderBy,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        return betReadService.getBetFeed(status, orderBy, after, limit);
+    }
+
+    // При совпадении If-None-Match с ETag обработчик ответа сам отдаёт 304 без тела
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<byte[]>> getBet(@PathVariable Long id) {
+        return betReadService.getBet(id)
+                .map(bet -> ResponseEntity.ok()
+                        .eTag(bet.etag())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(bet.json()));
+    }
+
+    @GetMapping("/{id}/votes")
+    public Mono<VoteResponse> getVotes(
+            @PathVariable Long id,
+            @RequestAttribute(JwtAuthenticationWebFilter.PRINCIPAL_ATTRIBUTE) AuthenticatedUser user) {
+        return betReadService.getVotes(id, user);
+    }
+}
@@ -0,0 +1,36 @@
+package com.betting.read.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Тот же контракт, что и {@code com.betting.dto.response.BetResponse} основного приложения:
+ * порядок и типы полей совпадают, поэтому совпадает и JSON (а с ним и ETag карточки).
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BetResponse {
+    
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime startDate;
+    private Integer duration;
+    private BetStatus status;
+    private UserResponse creator;
+    private UserResponse participant;
+    private UserResponse observer;
+    private UserResponse winner;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime resolvedAt;
+    private Map<String, VoteResult> votes;
+    private String shareUrl;
+}
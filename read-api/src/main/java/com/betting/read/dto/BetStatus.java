@@ -0,0 +1,11 @@
+package com.betting.read.dto;
+
+// Копия com.betting.entity.BetStatus: значения хранятся в bets.status строкой
+public enum BetStatus {
+    OPEN,           // Открыто для присоединения
+    IN_PROGRESS,    // В процессе выполнения
+    IMPLEMENTED,    // Время истекло, доступно голосование
+    CONFLICT,       // Конфликт в голосовании
+    RESOLVED,       // Разрешено судьей
+    FINISHED        // Завершено
+}
@@ -0,0 +1,16 @@
+package com.betting.read.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorResponse {
+    private int status;
+    private String code; // NOT_FOUND, BAD_REQUEST, ... — для программной обработки
+    private String message;
+}
@@ -0,0 +1,20 @@
+package com.betting.read.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserResponse {
+    
+    private Long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String role;
+    private boolean isActive;
+}
@@ -0,0 +1,7 @@
+package com.betting.read.dto;
+
+// Копия com.betting.entity.VoteResult: в bet_votes.vote_result хранится порядковый номер
+public enum VoteResult {
+    WIN,    // Выиграл
+    LOSE    // Проиграл
+}
@@ -0,0 +1,21 @@
+package com.betting.read.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Ожидаемый отказ в запросе (нет пари, неверный параметр, нет токена). Стек вызовов
+ * не заполняется: ответ строится {@link ApiExceptionHandler} только из статуса и сообщения.
+ */
+@Getter
+public abstract class ApiException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final String code;
+
+    protected ApiException(HttpStatus status, String code, String message) {
+        super(message, null, false, false);
+        this.status = status;
+        this.code = code;
+    }
+}
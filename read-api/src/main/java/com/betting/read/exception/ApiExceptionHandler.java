@@ -0,0 +1,83 @@
+package com.betting.read.exception;
+
+import com.betting.read.dto.ErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Отображение исключений в {@link ErrorResponse} с теми же статусами и кодами, что
+ * у основного приложения. Стандартные ошибки WebFlux (неверный тип параметра, нет маршрута)
+ * обрабатывает базовый класс, здесь подменяется только тело ответа.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<ErrorResponse> handleApiException(ApiException e) {
+        return ResponseEntity.status(e.getStatus()).body(ErrorResponse.builder()
+                .status(e.getStatus().value())
+                .code(e.getCode())
+                .message(e.getMessage())
+                .build());
+    }
+
+    // Не дождались соединения из пула R2DBC (или БД недоступна): клиент повторит позже
+    @ExceptionHandler(DataAccessResourceFailureException.class)
+    public ResponseEntity<ErrorResponse> handleNoConnection(DataAccessResourceFailureException e) {
+        log.warn("Не удалось получить соединение с БД: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorResponse.builder()
+                        .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .code("OVERLOADED")
+                        .message("Сервис перегружен, повторите попытку позже")
+                        .build());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleUnexpected(Exception e) {
+        log.error("Необработанная ошибка запроса", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorResponse.builder()
+                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                .code("INTERNAL_ERROR")
+                .message("Внутренняя ошибка сервера")
+                .build());
+    }
+
+    @Override
+    protected Mono<ResponseEntity<Object>> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers,
+                                                                   HttpStatusCode statusCode,
+                                                                   ServerWebExchange exchange) {
+        HttpStatus status = HttpStatus.resolve(statusCode.value());
+        ErrorResponse error = ErrorResponse.builder()
+                .status(statusCode.value())
+                .code(status != null ? status.name() : "ERROR")
+                .message(messageFor(statusCode))
+                .build();
+        return super.handleExceptionInternal(ex, error, headers, statusCode, exchange);
+    }
+
+    private static String messageFor(HttpStatusCode statusCode) {
+        HttpStatus status = HttpStatus.resolve(statusCode.value());
+        if (status == HttpStatus.NOT_FOUND) {
+            return "Ресурс не найден";
+        }
+        if (status == HttpStatus.METHOD_NOT_ALLOWED) {
+            return "Метод не поддерживается";
+        }
+        if (statusCode.is4xxClientError()) {
+            return "Некорректный запрос";
+        }
+        return status != null ? status.getReasonPhrase() : "Ошибка " + statusCode.value();
+    }
+}
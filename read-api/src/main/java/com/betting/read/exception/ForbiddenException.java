@@ -0,0 +1,13 @@
+package com.betting.read.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Нет доступа: 403. Как и в основном приложении, так отвечают и на запрос без действующего токена.
+ */
+public class ForbiddenException extends ApiException {
+
+    public ForbiddenException(String message) {
+        super(HttpStatus.FORBIDDEN, "FORBIDDEN", message);
+    }
+}
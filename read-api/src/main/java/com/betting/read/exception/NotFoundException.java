@@ -0,0 +1,13 @@
+package com.betting.read.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Запрошенный объект не существует: 404.
+ */
+public class NotFoundException extends ApiException {
+
+    public NotFoundException(String message) {
+        super(HttpStatus.NOT_FOUND, "NOT_FOUND", message);
+    }
+}
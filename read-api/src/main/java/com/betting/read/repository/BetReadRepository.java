@@ -0,0 +1,209 @@
+package com.betting.read.repository;
+
+import com.betting.read.dto.BetResponse;
+import com.betting.read.dto.BetStatus;
+import com.betting.read.dto.UserResponse;
+import com.betting.read.dto.VoteResult;
+import com.betting.read.exception.BadRequestException;
+import com.betting.read.service.BetCursor;
+import com.betting.read.service.VersionedBet;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Чтение пари по схеме основного приложения (bets, users, bet_votes) через R2DBC.
+ * Карточка со всеми пользователями собирается одним запросом с JOIN, голоса страницы — вторым.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BetReadRepository {
+
+    private static final String BET_SELECT = "SELECT b.id, b.title, b.description, b.start_date, b.duration, " +
+            "b.status, b.version, b.created_at, b.updated_at, b.resolved_at, " +
+            userColumns("c") + ", " + userColumns("p") + ", " + userColumns("o") + ", " + userColumns("w") + " " +
+            "FROM bets b JOIN users c ON c.id = b.creator_id " +
+            "LEFT JOIN users p ON p.id = b.participant_id " +
+            "LEFT JOIN users o ON o.id = b.observer_id " +
+            "LEFT JOIN users w ON w.id = b.winner_id ";
+
+    // Свойства BetResponse, по которым можно сортировать страницу, и их столбцы
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "b.id",
+            "title", "b.title",
+            "startDate", "b.start_date",
+            "duration", "b.duration",
+            "status", "b.status",
+            "createdAt", "b.created_at",
+            "updatedAt", "b.updated_at",
+            "resolvedAt", "b.resolved_at");
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<BetResponse> findPage(BetStatus status, Pageable pageable) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(BET_SELECT + where(status) +
+                        orderBy(pageable.getSort()) + " LIMIT :limit OFFSET :offset")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset());
+        return bindFilter(spec, status)
+                .map((row, metadata) -> toResponse(row))
+                .all();
+    }
+
+    public Mono<Long> count(BetStatus status) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("SELECT COUNT(*) AS total FROM bets b " +
+                where(status));
+        return bindFilter(spec, status)
+                .map((row, metadata) -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * Лента после позиции курсора: те же условия keyset, что и в основном приложении —
+     * {@code createdAt} по убыванию, {@code startDate} по возрастанию, при равенстве по id.
+     * Сравнение пар (ключ, id) — граница диапазона в составном индексе, а не фильтр по прочитанным строкам.
+     */
+    public Flux<BetResponse> findFeed(BetCursor.Order order, BetStatus status,
+                                      LocalDateTime position, Long id, int limit) {
+        String keyset = order == BetCursor.Order.CREATED_AT
+                ? "(b.created_at, b.id) < (:position, :id) " +
+                  "ORDER BY b.created_at DESC, b.id DESC"
+                : "(b.start_date, b.id) > (:position, :id) " +
+                  "ORDER BY b.start_date ASC, b.id ASC";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(BET_SELECT + "WHERE " +
+                        (status != null ? "b.status = :status AND " : "") + keyset + " LIMIT :limit")
+                .bind("position", position)
+                .bind("id", id)
+                .bind("limit", limit);
+        if (status != null) {
+            spec = spec.bind("status", status.name());
+        }
+        return spec.map((row, metadata) -> toResponse(row)).all();
+    }
+
+    public Mono<VersionedBet> findDetailedById(Long id) {
+        return databaseClient.sql(BET_SELECT + "WHERE b.id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> new VersionedBet(row.get("version", Long.class), toResponse(row)))
+                .one();
+    }
+
+    // Голоса сразу для всей страницы: bet_id -> (email -> результат)
+    public Mono<Map<Long, Map<String, VoteResult>>> findVotesByBetIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return databaseClient.sql("SELECT v.bet_id, u.email, v.vote_result FROM bet_votes v " +
+                        "JOIN users u ON u.id = v.user_id WHERE v.bet_id IN (:ids)")
+                .bind("ids", ids)
+                .map((row, metadata) -> new BetVote(
+                        row.get("bet_id", Long.class),
+                        row.get("email", String.class),
+                        VoteResult.values()[intValue(row, "vote_result")]))
+                .all()
+                .collect(HashMap::new, (votes, vote) -> votes
+                        .computeIfAbsent(vote.betId(), betId -> new HashMap<>())
+                        .put(vote.email(), vote.result()));
+    }
+
+    public Mono<VoteTally> findVoteTally(Long id) {
+        return databaseClient.sql("SELECT for_votes, against_votes FROM bets WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> new VoteTally(intValue(row, "for_votes"), intValue(row, "against_votes")))
+                .one();
+    }
+
+    // Голос пользователя по ключу bet_votes(bet_id, user_id)
+    public Mono<VoteResult> findUserVote(Long betId, Long userId) {
+        return databaseClient.sql("SELECT vote_result FROM bet_votes WHERE bet_id = :betId AND user_id = :userId")
+                .bind("betId", betId)
+                .bind("userId", userId)
+                .map((row, metadata) -> VoteResult.values()[intValue(row, "vote_result")])
+                .one();
+    }
+
+    private static String where(BetStatus status) {
+        return status != null ? "WHERE b.status = :status " : "";
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindFilter(DatabaseClient.GenericExecuteSpec spec, BetStatus status) {
+        return status != null ? spec.bind("status", status.name()) : spec;
+    }
+
+    // id замыкает порядок, чтобы страницы со смещением не пересекались при равных значениях
+    private static String orderBy(Sort sort) {
+        StringJoiner order = new StringJoiner(", ", "ORDER BY ", "");
+        for (Sort.Order sortOrder : sort) {
+            String column = SORT_COLUMNS.get(sortOrder.getProperty());
+            if (column == null) {
+                throw new BadRequestException("Сортировка по полю " + sortOrder.getProperty() + " не поддерживается");
+            }
+            order.add(column + (sortOrder.isAscending() ? " ASC" : " DESC"));
+        }
+        if (sort.getOrderFor("id") == null) {
+            order.add("b.id ASC");
+        }
+        return order.toString();
+    }
+
+    private static String userColumns(String alias) {
+        return String.join(", ",
+                alias + ".id AS " + alias + "_id",
+                alias + ".email AS " + alias + "_email",
+                alias + ".first_name AS " + alias + "_first_name",
+                alias + ".last_name AS " + alias + "_last_name",
+                alias + ".role AS " + alias + "_role",
+                alias + ".is_active AS " + alias + "_is_active");
+    }
+
+    private static BetResponse toResponse(Row row) {
+        Long id = row.get("id", Long.class);
+        return BetResponse.builder()
+                .id(id)
+                .title(row.get("title", String.class))
+                .description(row.get("description", String.class))
+                .startDate(row.get("start_date", LocalDateTime.class))
+                .duration(row.get("duration", Integer.class))
+                .status(BetStatus.valueOf(row.get("status", String.class)))
+                .creator(toUser(row, "c"))
+                .participant(toUser(row, "p"))
+                .observer(toUser(row, "o"))
+                .winner(toUser(row, "w"))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .resolvedAt(row.get("resolved_at", LocalDateTime.class))
+                .shareUrl("/bet/" + id)
+                .build();
+    }
+
+    private static UserResponse toUser(Row row, String alias) {
+        Long id = row.get(alias + "_id", Long.class);
+        if (id == null) {
+            return null;
+        }
+        return UserResponse.builder()
+                .id(id)
+                .email(row.get(alias + "_email", String.class))
+                .firstName(row.get(alias + "_first_name", String.class))
+                .lastName(row.get(alias + "_last_name", String.class))
+                .role(row.get(alias + "_role", String.class))
+                .isActive(Boolean.TRUE.equals(row.get(alias + "_is_active", Boolean.class)))
+                .build();
+    }
+
+    // Тип целочисленного столбца зависит от БД (TINYINT в H2, SMALLINT/INTEGER в PostgreSQL)
+    private static int intValue(Row row, String column) {
+        return ((Number) row.get(column)).intValue();
+    }
+}
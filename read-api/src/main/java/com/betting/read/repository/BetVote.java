@@ -0,0 +1,9 @@
+package com.betting.read.repository;
+
+import com.betting.read.dto.VoteResult;
+
+/**
+ * Строка bet_votes вместе с email проголосовавшего.
+ */
+public record BetVote(Long betId, String email, VoteResult result) {
+}
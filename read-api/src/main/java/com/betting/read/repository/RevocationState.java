@@ -0,0 +1,7 @@
+package com.betting.read.repository;
+
+/**
+ * Версия токенов пользователя и признак активности для таблицы отзыва.
+ */
+public record RevocationState(Long userId, int tokenVersion, boolean active) {
+}
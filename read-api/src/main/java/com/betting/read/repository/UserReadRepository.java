@@ -0,0 +1,24 @@
+package com.betting.read.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+@RequiredArgsConstructor
+public class UserReadRepository {
+
+    private final DatabaseClient databaseClient;
+
+    // Только пользователи, чьи токены могут быть отозваны: выходившие из системы и заблокированные
+    public Flux<RevocationState> findRevocationState() {
+        return databaseClient.sql("SELECT id, token_version, is_active FROM users " +
+                        "WHERE token_version > 0 OR is_active = false")
+                .map((row, metadata) -> new RevocationState(
+                        row.get("id", Long.class),
+                        row.get("token_version", Integer.class),
+                        Boolean.TRUE.equals(row.get("is_active", Boolean.class))))
+                .all();
+    }
+}
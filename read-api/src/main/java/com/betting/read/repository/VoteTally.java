@@ -0,0 +1,7 @@
+package com.betting.read.repository;
+
+/**
+ * Счётчики голосов из строки пари (bets.for_votes / bets.against_votes).
+ */
+public record VoteTally(int forVotes, int againstVotes) {
+}
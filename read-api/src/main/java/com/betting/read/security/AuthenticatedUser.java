@@ -0,0 +1,17 @@
+package com.betting.read.security;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Принципал запроса, собранный из проверенных claims токена основного приложения.
+ */
+@Getter
+@RequiredArgsConstructor
+public class AuthenticatedUser {
+
+    private final Long id;
+    private final String email;
+    private final String role;
+    private final int tokenVersion;
+}
@@ -0,0 +1,53 @@
+package com.betting.read.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Проверка токенов, выданных основным приложением: тот же {@code jwt.secret} (HS256)
+ * и те же claims {@code uid}, {@code role}, {@code ver}. Сам токен этот сервис не выдаёт.
+ * Проверка подписи — только вычисление HMAC, поэтому выполняется прямо в потоке event loop.
+ */
+@Component
+public class JwtVerifier {
+
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+
+    private final JwtParser parser;
+
+    public JwtVerifier(@Value("${jwt.secret}") String secret) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    /**
+     * Пользователь из действующего токена; пусто, если подпись неверна, срок истёк
+     * или в токене нет claims идентичности (сходить за ними в БД этот сервис не может).
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Integer tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        if (claims.getSubject() == null || userId == null || role == null || tokenVersion == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedUser(userId, claims.getSubject(), role, tokenVersion));
+    }
+}
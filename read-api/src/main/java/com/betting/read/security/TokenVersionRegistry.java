@@ -0,0 +1,52 @@
+package com.betting.read.security;
+
+import com.betting.read.repository.UserReadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Таблица отзыва токенов, как в stateless-режиме основного приложения: минимальная
+ * допустимая версия токена для пользователей, которые выходили из системы или заблокированы.
+ * Перечитывается из users раз в {@code jwt.revocation-refresh}, так что выход на основном
+ * приложении начинает действовать здесь с этой задержкой.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+
+    static final int REVOKED = Integer.MAX_VALUE;
+
+    private final UserReadRepository userRepository;
+
+    private volatile Map<Long, Integer> minVersions = Map.of();
+
+    public boolean isCurrent(AuthenticatedUser user) {
+        Integer min = minVersions.get(user.getId());
+        return min == null || user.getTokenVersion() >= min;
+    }
+
+    // Реактивный метод: планировщик подписывается на каждый запуск и ждёт его завершения
+    @Scheduled(fixedDelayString = "${jwt.revocation-refresh:30000}")
+    public Mono<Void> reload() {
+        return userRepository.findRevocationState()
+                .collect(HashMap<Long, Integer>::new, (fresh, state) ->
+                        fresh.put(state.userId(), state.active() ? state.tokenVersion() : REVOKED))
+                .doOnNext(fresh -> {
+                    minVersions = fresh;
+                    log.debug("Загружено записей отзыва токенов: {}", fresh.size());
+                })
+                .onErrorResume(e -> {
+                    // Оставляем прежнюю таблицу: следующий запуск повторит загрузку
+                    log.warn("Не удалось обновить таблицу отзыва токенов: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
@@ -0,0 +1,46 @@
+package com.betting.read.service;
+
+import com.betting.read.exception.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор ленты пари: позиция последней выданной записи
+ * по ключу сортировки {@code (createdAt|startDate, id)}. Формат совпадает с основным
+ * приложением, поэтому курсор из одного сервиса продолжает ленту в другом.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BetCursor {
+
+    public enum Order {
+        CREATED_AT, START_DATE
+    }
+
+    private final Order order;
+    private final LocalDateTime position;
+    private final Long id;
+
+    public String encode() {
+        String raw = order.name() + "|" + position + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BetCursor decode(String cursor, Order expectedOrder) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !expectedOrder.name().equals(parts[0])) {
+                throw new BadRequestException("Неверный курсор");
+            }
+            return new BetCursor(expectedOrder, LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Неверный курсор");
+        }
+    }
+}
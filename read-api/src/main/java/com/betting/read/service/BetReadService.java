@@ -0,0 +1,174 @@
+package com.betting.read.service;
+
+import com.betting.read.dto.BetResponse;
+import com.betting.read.dto.BetStatus;
+import com.betting.read.dto.CursorPageResponse;
+import com.betting.read.dto.VoteResponse;
+import com.betting.read.dto.VoteResult;
+import com.betting.read.exception.BadRequestException;
+import com.betting.read.exception.NotFoundException;
+import com.betting.read.repository.BetReadRepository;
+import com.betting.read.security.AuthenticatedUser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Чтение пари без блокировок: те же ответы, что у {@code BetService} основного приложения,
+ * но запросы к БД идут через R2DBC и не занимают поток на время ожидания.
+ */
+@Service
+@RequiredArgsConstructor
+public class BetReadService {
+
+    private static final int MAX_FEED_LIMIT = 100;
+    private static final LocalDateTime FEED_MIN_DATE = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime FEED_MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final BetReadRepository betRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Страница пари. Поиск ранжирует индекс в памяти основного приложения, повторить его
+     * запросом к БД нельзя, поэтому {@code search} здесь не выполняется, а отклоняется:
+     * один и тот же запрос не должен давать разные пари в зависимости от сервиса.
+     */
+    public Mono<Page<BetResponse>> getBets(String status, String search, Pageable pageable) {
+        if (search != null && !search.isBlank()) {
+            throw new BadRequestException("Поиск выполняет основное приложение");
+        }
+        BetStatus betStatus = parseStatus(status);
+        return betRepository.findPage(betStatus, pageable)
+                .collectList()
+                .flatMap(content -> total(content, pageable, () -> betRepository.count(betStatus))
+                        .zipWith(withVotes(content),
+                                (total, bets) -> (Page<BetResponse>) new PageImpl<>(bets, pageable, total)));
+    }
+
+    public Mono<CursorPageResponse<BetResponse>> getBetFeed(String status, String orderBy, String after, int limit) {
+        BetCursor.Order order = "startDate".equals(orderBy) ? BetCursor.Order.START_DATE : BetCursor.Order.CREATED_AT;
+        BetStatus betStatus = parseStatus(status);
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_LIMIT));
+
+        // Первая страница начинается с граничного значения ключа, чтобы обойтись тем же запросом
+        BetCursor cursor = (after != null && !after.isEmpty())
+                ? BetCursor.decode(after, order)
+                : order == BetCursor.Order.CREATED_AT
+                        ? new BetCursor(order, FEED_MAX_DATE, Long.MAX_VALUE)
+                        : new BetCursor(order, FEED_MIN_DATE, 0L);
+
+        // Берём на одну запись больше, чтобы узнать о наличии следующей страницы без COUNT
+        return betRepository.findFeed(order, betStatus, cursor.getPosition(), cursor.getId(), pageSize + 1)
+                .collectList()
+                .flatMap(rows -> {
+                    boolean hasNext = rows.size() > pageSize;
+                    List<BetResponse> page = hasNext ? rows.subList(0, pageSize) : rows;
+                    String nextCursor = null;
+                    if (hasNext) {
+                        BetResponse last = page.get(page.size() - 1);
+                        LocalDateTime position = order == BetCursor.Order.CREATED_AT ? last.getCreatedAt() : last.getStartDate();
+                        nextCursor = new BetCursor(order, position, last.getId()).encode();
+                    }
+                    String next = nextCursor;
+                    return withVotes(page).map(bets -> CursorPageResponse.<BetResponse>builder()
+                            .content(bets)
+                            .nextCursor(next)
+                            .hasNext(hasNext)
+                            .size(bets.size())
+                            .build());
+                });
+    }
+
+    /**
+     * Карточка пари, сериализованная так же, как в основном приложении, вместе с ETag того же вида:
+     * для неизменённого пари оба сервиса выдают один и тот же ETag.
+     */
+    public Mono<BetDetail> getBet(Long betId) {
+        return betRepository.findDetailedById(betId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Пари не найдено")))
+                .flatMap(bet -> withVotes(List.of(bet.response()))
+                        .map(bets -> toDetail(bet.version(), bets.get(0))));
+    }
+
+    public Mono<VoteResponse> getVotes(Long betId, AuthenticatedUser user) {
+        // Счётчики хранятся в строке пари, голос пользователя — точечный запрос по ключу
+        return betRepository.findVoteTally(betId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Пари не найдено")))
+                .zipWith(betRepository.findUserVote(betId, user.getId())
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty()))
+                .map(tuple -> VoteResponse.builder()
+                        .forVotes(tuple.getT1().forVotes())
+                        .againstVotes(tuple.getT1().againstVotes())
+                        .userVote(tuple.getT2().map(vote -> vote == VoteResult.WIN).orElse(null))
+                        .build());
+    }
+
+    // Голоса всей страницы одним запросом
+    private Mono<List<BetResponse>> withVotes(List<BetResponse> bets) {
+        List<Long> ids = bets.stream().map(BetResponse::getId).toList();
+        return betRepository.findVotesByBetIds(ids)
+                .map(votes -> bets.stream()
+                        .map(bet -> bet.toBuilder().votes(votes.getOrDefault(bet.getId(), Map.of())).build())
+                        .toList());
+    }
+
+    // Как PageableExecutionUtils: COUNT не нужен, если страница неполная и по ней уже видно общее число
+    private static Mono<Long> total(List<BetResponse> content, Pageable pageable, Supplier<Mono<Long>> count) {
+        if (pageable.isUnpaged() || (pageable.getOffset() == 0 && content.size() < pageable.getPageSize())) {
+            return Mono.just((long) content.size());
+        }
+        if (!content.isEmpty() && content.size() < pageable.getPageSize()) {
+            return Mono.just(pageable.getOffset() + content.size());
+        }
+        return count.get();
+    }
+
+    private static BetStatus parseStatus(String status) {
+        if (status == null || status.isEmpty()) {
+            return null;
+        }
+        try {
+            return BetStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Неизвестный статус пари: " + status);
+        }
+    }
+
+    private BetDetail toDetail(Long version, BetResponse bet) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(bet);
+            return new BetDetail(etag(version, json), json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать пари " + bet.getId(), e);
+        }
+    }
+
+    // Строгий ETag: версия пари и хэш тела, как в BetDetailCache основного приложения
+    private static String etag(Long version, byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            String digest = Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 16);
+            return "\"" + version + "-" + digest + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    public record BetDetail(String etag, byte[] json) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.betting.read.service;
+
+import com.betting.read.dto.BetResponse;
+
+/**
+ * Карточка пари вместе с версией строки, из которой она собрана.
+ */
+public record VersionedBet(Long version, BetResponse response) {
+}
@@ -0,0 +1,189 @@
+package com.betting.read.controller;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+/**
+ * Ответы модуля совпадают с основным приложением: карточка побайтно и с тем же ETag,
+ * лента и голоса — по содержимому, курсоры — в общем формате {@code ORDER|позиция|id}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class BetReadControllerTest {
+
+    private static final String CREATOR = "{\"id\":1,\"email\":\"creator@example.com\",\"firstName\":\"Иван\"," +
+            "\"lastName\":\"Петров\",\"role\":\"USER\",\"active\":true}";
+    private static final String PARTICIPANT = "{\"id\":2,\"email\":\"participant@example.com\",\"firstName\":\"Анна\"," +
+            "\"lastName\":\"Смирнова\",\"role\":\"USER\",\"active\":true}";
+    private static final String OBSERVER = "{\"id\":3,\"email\":\"observer@example.com\",\"firstName\":\"Олег\"," +
+            "\"lastName\":\"Иванов\",\"role\":\"USER\",\"active\":true}";
+
+    // Так сериализует BetResponse основное приложение: порядок полей, даты ISO, null не пропускаются
+    private static final String BET_10 = "{\"id\":10,\"title\":\"Футбол\",\"description\":\"Финал кубка\"," +
+            "\"startDate\":\"2026-03-05T18:00:30\",\"duration\":2,\"status\":\"IN_PROGRESS\"," +
+            "\"creator\":" + CREATOR + ",\"participant\":" + PARTICIPANT + ",\"observer\":" + OBSERVER + "," +
+            "\"winner\":null,\"createdAt\":\"2026-03-01T10:00:30\",\"updatedAt\":\"2026-03-02T09:15:30\"," +
+            "\"resolvedAt\":null,\"votes\":{\"participant@example.com\":\"WIN\"},\"shareUrl\":\"/bet/10\"}";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Test
+    void cardMatchesMainApplicationBytesAndEtag() throws Exception {
+        String etag = etag(3, BET_10);
+
+        byte[] body = webTestClient.get().uri("/bets/10")
+                .header(HttpHeaders.AUTHORIZATION, bearer(1, "creator@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody().returnResult().getResponseBody();
+        assertThat(new String(body, StandardCharsets.UTF_8)).isEqualTo(BET_10);
+
+        webTestClient.get().uri("/bets/10")
+                .header(HttpHeaders.AUTHORIZATION, bearer(1, "creator@example.com"))
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void createdAtFeedSplitsTieByIdAndContinuesFromCursor() {
+        String cursor = cursor("CREATED_AT|2026-03-02T10:00:30|12");
+
+        webTestClient.get().uri("/bets?limit=2")
+                .header(HttpHeaders.AUTHORIZATION, bearer(1, "creator@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[*].id").value(contains(13, 12))
+                .jsonPath("$.hasNext").isEqualTo(true)
+                .jsonPath("$.size").isEqualTo(2)
+                .jsonPath("$.nextCursor").isEqualTo(cursor);
+
+        webTestClient.get().uri("/bets?limit=2&after={after}", cursor)
+                .header(HttpHeaders.AUTHORIZATION, bearer(1, "creator@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .json("{\"content\":[{\"id\":11}," + BET_10 + "],\"nextCursor\":null,\"hasNext\":false,\"size\":2}");
+    }
+
+    @Test
+    void startDateFeedFiltersByStatus() {
+        String cursor = cursor("START_DATE|2026-04-01T12:00:30|12");
+
+        webTestClient.get().uri("/bets?limit=2&status=open&orderBy=startDate")
+                .header(HttpHeaders.AUTHORIZATION, bearer(1, "creator@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[*].id").value(contains(11, 12))
+                .jsonPath("$.nextCursor").isEqualTo(cursor);
+
+        webTestClient.get().uri("/bets?limit=2&status=open&orderBy=startDate&after={after}", cursor)
+                .header(HttpHeaders.AUTHORIZATION, bearer(1, "creator@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[*].id").value(contains(13))
+                .jsonPath("$.hasNext").isEqualTo(false);
+    }
+
+    @Test
+    void cursorOfOtherOrderIsRejected() {
+        webTestClient.get().uri("/bets?limit=2&orderBy=startDate&after={after}",
+                        cursor("CREATED_AT|2026-03-02T10:00:30|12"))
+                .header(HttpHeaders.AUTHORIZATION, bearer(1, "creator@example.com"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void pageFiltersByStatusInIdOrder() {
+        webTestClient.get().uri("/bets?status=open&size=2")
+                .header(HttpHeaders.AUTHORIZATION, bearer(1, "creator@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[*].id").value(contains(11, 12))
+                .jsonPath("$.totalElements").isEqualTo(3);
+    }
+
+    // Поиск ранжирует только индекс основного приложения: здесь запрос отклоняется, а не даёт другой результат
+    @Test
+    void searchIsLeftToMainApplication() {
+        webTestClient.get().uri("/bets?search=фут")
+                .header(HttpHeaders.AUTHORIZATION, bearer(1, "creator@example.com"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void votesIncludeOwnVote() {
+        webTestClient.get().uri("/bets/10/votes")
+                .header(HttpHeaders.AUTHORIZATION, bearer(2, "participant@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .json("{\"forVotes\":1,\"againstVotes\":0,\"userVote\":true}");
+
+        webTestClient.get().uri("/bets/10/votes")
+                .header(HttpHeaders.AUTHORIZATION, bearer(1, "creator@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .json("{\"forVotes\":1,\"againstVotes\":0,\"userVote\":null}");
+    }
+
+    @Test
+    void requestWithoutTokenIsForbidden() {
+        webTestClient.get().uri("/bets/10")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    // Токен того же вида, что выдаёт основное приложение
+    private String bearer(long userId, String email) {
+        String token = Jwts.builder()
+                .setSubject(email)
+                .claim("uid", userId)
+                .claim("role", "USER")
+                .claim("ver", 0)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+        return "Bearer " + token;
+    }
+
+    private static String cursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Формула BetDetailCache основного приложения
+    private static String etag(long version, String json) throws Exception {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+        return "\"" + version + "-" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 16) + "\"";
+    }
+}
@@ -0,0 +1,19 @@
+INSERT INTO users (id, email, password, first_name, last_name, role, is_active) VALUES
+    (1, 'creator@example.com', 'password', 'Иван', 'Петров', 'USER', TRUE),
+    (2, 'participant@example.com', 'password', 'Анна', 'Смирнова', 'USER', TRUE),
+    (3, 'observer@example.com', 'password', 'Олег', 'Иванов', 'USER', TRUE);
+
+-- У пари 11 и 12 совпадают дата создания и дата начала: лента различает их по id
+INSERT INTO bets (id, title, description, start_date, duration, status, creator_id, participant_id, observer_id,
+                  version, created_at, updated_at, for_votes, against_votes) VALUES
+    (10, 'Футбол', 'Финал кубка', '2026-03-05 18:00:30', 2, 'IN_PROGRESS', 1, 2, 3,
+     3, '2026-03-01 10:00:30', '2026-03-02 09:15:30', 1, 0),
+    (11, 'Погода', NULL, '2026-04-01 12:00:30', 24, 'OPEN', 1, NULL, NULL,
+     0, '2026-03-02 10:00:30', '2026-03-02 10:00:30', 0, 0),
+    (12, 'Марафон', NULL, '2026-04-01 12:00:30', 5, 'OPEN', 1, NULL, NULL,
+     0, '2026-03-02 10:00:30', '2026-03-02 10:00:30', 0, 0),
+    (13, 'Шахматы', NULL, '2026-04-02 12:00:30', 3, 'OPEN', 1, NULL, NULL,
+     0, '2026-03-03 10:00:30', '2026-03-03 10:00:30', 0, 0);
+
+-- vote_result — порядковый номер VoteResult (0 — WIN)
+INSERT INTO bet_votes (bet_id, user_id, vote_result) VALUES (10, 2, 0);
@@ -0,0 +1,37 @@
+-- Столбцы, которые читает модуль, в том виде, в каком их создаёт основное приложение
+CREATE TABLE users (
+    id BIGINT PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    role VARCHAR(255),
+    is_active BOOLEAN NOT NULL,
+    token_version INTEGER DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE bets (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(4000),
+    start_date TIMESTAMP NOT NULL,
+    duration INTEGER NOT NULL,
+    status VARCHAR(255),
+    creator_id BIGINT NOT NULL REFERENCES users (id),
+    participant_id BIGINT REFERENCES users (id),
+    observer_id BIGINT REFERENCES users (id),
+    winner_id BIGINT REFERENCES users (id),
+    version BIGINT DEFAULT 0 NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    resolved_at TIMESTAMP,
+    for_votes INTEGER DEFAULT 0 NOT NULL,
+    against_votes INTEGER DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE bet_votes (
+    bet_id BIGINT NOT NULL REFERENCES bets (id),
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    vote_result TINYINT,
+    PRIMARY KEY (bet_id, user_id)
+);
@@ -1,11 +1,17 @@
 package com.betting.config;
 
+import com.betting.entity.User;
+import com.betting.entity.UserRole;
+import com.betting.security.AuthenticatedUser;
+import com.betting.security.TokenVersionRegistry;
 import com.betting.service.JwtService;
+import com.betting.service.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,13 +22,20 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    private static final String EVENTS_PATH_SUFFIX = "/events";
+    
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessAuth;
     
     @Override
     protected void doFilterInternal(
@@ -30,32 +43,69 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
-        final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
+        final String jwt = resolveToken(request);
         
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (jwt == null) {
             filterChain.doFilter(request, response);
             return;
         }
         
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        Optional<VerifiedToken> verified = jwtService.verify(jwt);
         
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        if (verified.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolvePrincipal(verified.get());
+            if (userDetails == null) {
+                filterChain.doFilter(request, response);
+                return;
             }
+            
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities()
+            );
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         
         filterChain.doFilter(request, response);
     }
+    
+    private static String resolveToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        // EventSource в браузере не умеет передавать заголовки, поэтому для SSE токен принимается в параметре
+        if ("GET".equals(request.getMethod()) && request.getRequestURI().endsWith(EVENTS_PATH_SUFFIX)) {
+            String token = request.getParameter("access_token");
+            return token == null || token.isEmpty() ? null : token;
+        }
+        return null;
+    }
+    
+    private UserDetails resolvePrincipal(VerifiedToken token) {
+        // В stateless-режиме принципал собирается из claims, база не используется
+        if (statelessAuth && token.hasIdentityClaims()) {
+            if (!tokenVersionRegistry.isCurrent(token.getUserId(), token.getTokenVersion())) {
+                return null;
+            }
+            return new AuthenticatedUser(
+                    token.getUserId(),
+                    token.getSubject(),
+                    UserRole.valueOf(token.getRole()),
+                    token.getTokenVersion()
+            );
+        }
+        
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(token.getSubject());
+        if (userDetails instanceof User user) {
+            if (token.getTokenVersion() != null && token.getTokenVersion() < user.getTokenVersion()) {
+                return null;
+            }
+            // Дальше по запросу пользователь идёт только как идентичность (id + роль)
+            return AuthenticatedUser.fromUser(user);
+        }
+        return userDetails;
+    }
 } 
\ No newline at end of file
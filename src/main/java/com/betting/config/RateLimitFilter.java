@@ -0,0 +1,104 @@
+package com.betting.config;
+
+import com.betting.dto.response.ErrorResponse;
+import com.betting.security.RateLimitExceededException;
+import com.betting.security.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ограничение частоты входа, регистрации и изменяющих запросов к пари. Стоит после
+ * {@link JwtAuthenticationFilter}, чтобы изменения считались по пользователю, а не по IP.
+ * Лимит входа по email проверяется в {@code AuthService}: email есть только в теле запроса.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final String REGISTER_PATH = "/auth/register";
+    private static final String BETS_PATH = "/bets";
+    // POST только из-за длины списка id, данные не меняет
+    private static final String LOOKUP_PATH = "/bets/lookup";
+    
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !rateLimiter.isEnabled();
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RateLimiter.Rule rule = resolveRule(request);
+        if (rule != null) {
+            long wait = rateLimiter.tryAcquire(rule, resolveKey(rule, request));
+            if (wait > 0) {
+                reject(response, new RateLimitExceededException(RateLimiter.toRetryAfterSeconds(wait)));
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+    
+    private static RateLimiter.Rule resolveRule(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return null;
+        }
+        String path = request.getServletPath();
+        if ("POST".equals(method) && LOGIN_PATH.equals(path)) {
+            return RateLimiter.Rule.LOGIN_IP;
+        }
+        if ("POST".equals(method) && REGISTER_PATH.equals(path)) {
+            return RateLimiter.Rule.REGISTER_IP;
+        }
+        if (path.startsWith(BETS_PATH) && !LOOKUP_PATH.equals(path)) {
+            return RateLimiter.Rule.MUTATIONS;
+        }
+        return null;
+    }
+    
+    private static String resolveKey(RateLimiter.Rule rule, HttpServletRequest request) {
+        if (rule == RateLimiter.Rule.MUTATIONS) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()) {
+                return authentication.getName();
+            }
+        }
+        // За прокси адрес клиента подставляется из X-Forwarded-For (server.forward-headers-strategy)
+        return request.getRemoteAddr();
+    }
+    
+    // Фильтр стоит до DispatcherServlet, поэтому тело ошибки пишется здесь, в формате ApiExceptionHandler
+    private void reject(HttpServletResponse response, RateLimitExceededException e) throws IOException {
+        response.setStatus(e.getStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(), ErrorResponse.builder()
+                .status(e.getStatus().value())
+                .code(e.getCode())
+                .message(e.getMessage())
+                .build());
+    }
+}
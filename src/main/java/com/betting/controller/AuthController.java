@@ -5,8 +5,10 @@ import com.betting.dto.request.RegisterRequest;
 import com.betting.dto.response.AuthResponse;
 import com.betting.dto.response.UserResponse;
 import com.betting.entity.User;
+import com.betting.exception.NotFoundException;
 import com.betting.service.AuthService;
 import com.betting.service.JwtService;
+import com.betting.service.VerifiedToken;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -16,6 +18,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -28,41 +32,42 @@ public class AuthController {
     @PostMapping("/register")
     @Operation(summary = "Регистрация пользователя", description = "Создает нового пользователя и возвращает JWT токен")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        try {
-            User user = authService.register(request);
-            String token = jwtService.generateToken(user);
-            
-            AuthResponse response = AuthResponse.builder()
-                    .token(token)
-                    .user(UserResponse.fromUser(user))
-                    .build();
-            
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(AuthResponse.builder()
-                    .message(e.getMessage())
-                    .build());
-        }
+        User user = authService.register(request);
+        String token = jwtService.generateToken(user);
+        
+        AuthResponse response = AuthResponse.builder()
+                .token(token)
+                .user(UserResponse.fromUser(user))
+                .build();
+        
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
     @PostMapping("/login")
     @Operation(summary = "Вход пользователя", description = "Аутентифицирует пользователя и возвращает JWT токен")
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        try {
-            User user = authService.login(request);
-            String token = jwtService.generateToken(user);
-            
-            AuthResponse response = AuthResponse.builder()
-                    .token(token)
-                    .user(UserResponse.fromUser(user))
-                    .build();
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(AuthResponse.builder()
-                    .message(e.getMessage())
-                    .build());
+        User user = authService.login(request);
+        String token = jwtService.generateToken(user);
+        
+        AuthResponse response = AuthResponse.builder()
+                .token(token)
+                .user(UserResponse.fromUser(user))
+                .build();
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/logout")
+    @Operation(summary = "Выход пользователя", description = "Отзывает все выданные пользователю JWT токены")
+    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            Optional<VerifiedToken> verified = jwtService.verify(authHeader.substring(7));
+            if (verified.isPresent()) {
+                authService.logout(verified.get().getSubject());
+                return ResponseEntity.noContent().build();
+            }
         }
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
     
     @GetMapping("/validate")
@@ -71,17 +76,16 @@ public class AuthController {
         try {
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 String token = authHeader.substring(7);
-                String email = jwtService.extractUsername(token);
+                Optional<VerifiedToken> verified = jwtService.verify(token);
                 
-                if (email != null) {
-                    User user = authService.findByEmail(email);
-                    if (jwtService.isTokenValid(token, user)) {
-                        return ResponseEntity.ok(UserResponse.fromUser(user));
-                    }
+                if (verified.isPresent()) {
+                    User user = authService.findByEmail(verified.get().getSubject());
+                    return ResponseEntity.ok(UserResponse.fromUser(user));
                 }
             }
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        } catch (Exception e) {
+        } catch (NotFoundException e) {
+            // Пользователь удалён после выдачи токена
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
@@ -1,26 +1,51 @@
 package com.betting.controller;
 
+import com.betting.dto.request.BatchCreateBetsRequest;
+import com.betting.dto.request.BetLookupRequest;
 import com.betting.dto.request.CreateBetRequest;
 import com.betting.dto.request.VoteRequest;
 import com.betting.dto.request.JoinBetRequest;
 import com.betting.dto.request.CommentRequest;
 import com.betting.dto.request.ResolveConflictRequest;
+import com.betting.dto.response.BetLookupItem;
 import com.betting.dto.response.BetResponse;
+import com.betting.dto.response.BetStatsResponse;
+import com.betting.dto.response.BetSummary;
+import com.betting.dto.response.CursorPageResponse;
 import com.betting.dto.response.VoteResponse;
 import com.betting.dto.response.CommentResponse;
+import com.betting.entity.BetStatus;
+import com.betting.exception.BadRequestException;
+import com.betting.security.AuthenticatedUser;
+import com.betting.service.BetDetailCache;
+import com.betting.service.BetEventHub;
+import com.betting.service.BetExportService;
 import com.betting.service.BetService;
+import com.betting.service.BetStatusCounts;
+import com.betting.service.CommentService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -30,13 +55,28 @@ import java.util.List;
 public class BetController {
     
     private final BetService betService;
+    private final CommentService commentService;
+    private final BetEventHub betEventHub;
+    private final BetDetailCache betDetailCache;
+    private final BetExportService betExportService;
+    private final BetStatusCounts betStatusCounts;
     
     @PostMapping
     @Operation(summary = "Создание пари", description = "Создает новое пари")
     public ResponseEntity<BetResponse> createBet(
             @Valid @RequestBody CreateBetRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        BetResponse response = betService.createBet(request, userDetails.getUsername());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        BetResponse response = betService.createBet(request, user);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @PostMapping("/batch")
+    @Operation(summary = "Пакетное создание пари",
+               description = "Создает до " + BatchCreateBetsRequest.MAX_BETS + " пари в одной транзакции; ошибка в любом откатывает все")
+    public ResponseEntity<List<BetResponse>> createBets(
+            @Valid @RequestBody BatchCreateBetsRequest request,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        List<BetResponse> response = betService.createBets(request.getBets(), user);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
@@ -50,11 +90,101 @@ public class BetController {
         return ResponseEntity.ok(bets);
     }
     
+    @GetMapping(params = {"limit", "!ids"})
+    @Operation(summary = "Лента пари по курсору", description = "Keyset-пагинация без подсчёта общего количества: передайте nextCursor из ответа в параметр after")
+    public ResponseEntity<CursorPageResponse<BetResponse>> getBetFeed(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false, defaultValue = "createdAt") String orderBy,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        return ResponseEntity.ok(betService.getBetFeed(status, orderBy, after, limit));
+    }
+    
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(summary = "Список пари краткими карточками",
+               description = "То же, что список с пагинацией, но в ответе только поля из fields через запятую: " +
+                       "id, title, status, startDate, duration, createdAt, creatorName, shareUrl")
+    public ResponseEntity<Page<BetSummary>> getBetSummaries(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String search,
+            @RequestParam String fields,
+            Pageable pageable) {
+        return ResponseEntity.ok(betService.getBetSummaries(status, search, pageable, fields));
+    }
+    
+    @GetMapping(params = {"limit", "fields", "!ids"})
+    @Operation(summary = "Лента пари краткими карточками", description = "Лента по курсору, в ответе только поля из fields")
+    public ResponseEntity<CursorPageResponse<BetSummary>> getBetSummaryFeed(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false, defaultValue = "createdAt") String orderBy,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(betService.getBetSummaryFeed(status, orderBy, after, limit, fields));
+    }
+    
+    // ids исключает остальные режимы списка: иначе ids вместе с limit или fields подходил бы
+    // под несколько обработчиков сразу, и Spring отвечал бы 500 вместо ошибки запроса
+    @GetMapping(params = {"ids", "!limit", "!fields"})
+    @Operation(summary = "Несколько пари по id",
+               description = "Пари по списку id через запятую в порядке запроса; для отсутствующих found = false. " +
+                       "Не сочетается с limit и fields")
+    public ResponseEntity<List<BetLookupItem>> getBetsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(betService.lookupBets(ids));
+    }
+    
+    @GetMapping(params = "ids")
+    @Operation(hidden = true)
+    public ResponseEntity<List<BetLookupItem>> rejectIdsWithListParams() {
+        throw new BadRequestException("Параметр ids не сочетается с limit и fields");
+    }
+    
+    @PostMapping("/lookup")
+    @Operation(summary = "Несколько пари по id (длинный список)",
+               description = "То же, что GET /bets?ids=, но список id передаётся в теле")
+    public ResponseEntity<List<BetLookupItem>> lookupBets(@Valid @RequestBody BetLookupRequest request) {
+        return ResponseEntity.ok(betService.lookupBets(request.getIds()));
+    }
+    
+    @GetMapping("/stats")
+    @Operation(summary = "Количество пари по статусам",
+               description = "Счётчики из памяти без COUNT по таблице; обновляются при каждом переходе статуса")
+    public ResponseEntity<BetStatsResponse> getStats() {
+        return ResponseEntity.ok(betStatusCounts.getStats());
+    }
+    
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Выгрузка пари (NDJSON)",
+               description = "Только для ADMIN. Все пари по возрастанию id, по одному JSON на строку; " +
+                       "фильтры: status и дата создания в полуинтервале [from, to)")
+    public void exportBets(
+            @RequestParam(required = false) BetStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bets.ndjson\"");
+        // Строки пишутся прямо в ответ по мере чтения из БД, без буферизации на прокси
+        response.setHeader("X-Accel-Buffering", "no");
+        betExportService.export(status, from, to, response.getOutputStream());
+    }
+    
     @GetMapping("/{id}")
-    @Operation(summary = "Получение пари по ID", description = "Возвращает детальную информацию о пари")
-    public ResponseEntity<BetResponse> getBet(@PathVariable Long id) {
-        BetResponse bet = betService.getBet(id);
-        return ResponseEntity.ok(bet);
+    @Operation(summary = "Получение пари по ID",
+               description = "Возвращает детальную информацию о пари. Ответ несёт ETag; " +
+                             "при совпадении If-None-Match возвращается 304 без тела")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = BetResponse.class)))
+    public ResponseEntity<byte[]> getBet(@PathVariable Long id, WebRequest webRequest) {
+        // Карточка уже сериализована в кэше; при актуальной версии у клиента ответ 304 без обращения к БД
+        BetDetailCache.Entry bet = betDetailCache.get(id);
+        if (webRequest.checkNotModified(bet.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(bet.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(bet.json());
     }
     
     @PostMapping("/{id}/join")
@@ -62,8 +192,8 @@ public class BetController {
     public ResponseEntity<BetResponse> joinBet(
             @PathVariable Long id,
             @Valid @RequestBody JoinBetRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        BetResponse bet = betService.joinBet(id, request.getRole(), userDetails.getUsername());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        BetResponse bet = betService.joinBet(id, request.getRole(), user);
         return ResponseEntity.ok(bet);
     }
     
@@ -71,8 +201,8 @@ public class BetController {
     @Operation(summary = "Получение голосов", description = "Возвращает статистику голосования")
     public ResponseEntity<VoteResponse> getVotes(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        VoteResponse votes = betService.getVotes(id, userDetails.getUsername());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        VoteResponse votes = betService.getVotes(id, user);
         return ResponseEntity.ok(votes);
     }
     
@@ -81,15 +211,18 @@ public class BetController {
     public ResponseEntity<BetResponse> vote(
             @PathVariable Long id,
             @Valid @RequestBody VoteRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        BetResponse bet = betService.vote(id, request, userDetails.getUsername());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        BetResponse bet = betService.vote(id, request, user);
         return ResponseEntity.ok(bet);
     }
     
     @GetMapping("/{id}/comments")
-    @Operation(summary = "Получение комментариев", description = "Возвращает список комментариев к пари")
-    public ResponseEntity<List<CommentResponse>> getComments(@PathVariable Long id) {
-        List<CommentResponse> comments = betService.getComments(id);
+    @Operation(summary = "Получение комментариев", description = "Возвращает комментарии к пари по курсору, новые сверху")
+    public ResponseEntity<CursorPageResponse<CommentResponse>> getComments(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPageResponse<CommentResponse> comments = commentService.getComments(id, after, limit);
         return ResponseEntity.ok(comments);
     }
     
@@ -98,18 +231,30 @@ public class BetController {
     public ResponseEntity<CommentResponse> addComment(
             @PathVariable Long id,
             @Valid @RequestBody CommentRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        CommentResponse comment = betService.addComment(id, request.getText(), userDetails.getUsername());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        CommentResponse comment = commentService.addComment(id, request.getText(), user);
         return ResponseEntity.ok(comment);
     }
     
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Поток изменений пари",
+               description = "SSE: события bet (актуальное состояние), comment (новый комментарий) и deleted. " +
+                             "Токен можно передать параметром access_token")
+    public ResponseEntity<SseEmitter> events(@PathVariable Long id) {
+        SseEmitter emitter = betEventHub.subscribe(id);
+        // Прокси (nginx) не должен буферизовать поток событий
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+    
     @PostMapping("/{id}/resolve")
     @Operation(summary = "Разрешение конфликта", description = "Позволяет наблюдателю разрешить конфликт в пари")
     public ResponseEntity<BetResponse> resolveConflict(
             @PathVariable Long id,
             @Valid @RequestBody ResolveConflictRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        BetResponse bet = betService.resolveConflict(id, request.getWinner(), userDetails.getUsername());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        BetResponse bet = betService.resolveConflict(id, request.getWinner(), user);
         return ResponseEntity.ok(bet);
     }
     
@@ -117,8 +262,8 @@ public class BetController {
     @Operation(summary = "Завершение пари", description = "Завершает пари")
     public ResponseEntity<BetResponse> finishBet(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        BetResponse bet = betService.finishBet(id, userDetails.getUsername());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        BetResponse bet = betService.finishBet(id, user);
         return ResponseEntity.ok(bet);
     }
     
@@ -126,8 +271,8 @@ public class BetController {
     @Operation(summary = "Удаление пари", description = "Удаляет пари (только создатель может удалить)")
     public ResponseEntity<Void> deleteBet(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        betService.deleteBet(id, userDetails.getUsername());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        betService.deleteBet(id, user);
         return ResponseEntity.noContent().build();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.betting.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchCreateBetsRequest {
+    
+    public static final int MAX_BETS = 1000;
+    
+    @NotEmpty(message = "Список пари не должен быть пустым")
+    @Size(max = MAX_BETS, message = "За один запрос можно создать не больше " + MAX_BETS + " пари")
+    private List<@Valid CreateBetRequest> bets;
+}
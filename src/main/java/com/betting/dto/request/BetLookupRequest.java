@@ -0,0 +1,18 @@
+package com.betting.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BetLookupRequest {
+    
+    public static final int MAX_IDS = 500;
+    
+    @NotEmpty(message = "Список id не должен быть пустым")
+    @Size(max = MAX_IDS, message = "За один запрос можно получить не больше " + MAX_IDS + " пари")
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,63 @@
+package com.betting.dto.response;
+
+import com.betting.entity.Bet;
+import com.betting.entity.BetStatus;
+import com.betting.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка выгрузки пари: плоская, пользователи — только id, голоса — счётчики,
+ * чтобы выгрузка не догружала связанные строки.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BetExportRow {
+
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime startDate;
+    private Integer duration;
+    private BetStatus status;
+    private Long creatorId;
+    private Long participantId;
+    private Long observerId;
+    private Long winnerId;
+    private int forVotes;
+    private int againstVotes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime resolvedAt;
+
+    // id связей берутся из ленивых прокси без обращения к БД
+    public static BetExportRow fromBet(Bet bet) {
+        return BetExportRow.builder()
+                .id(bet.getId())
+                .title(bet.getTitle())
+                .description(bet.getDescription())
+                .startDate(bet.getStartDate())
+                .duration(bet.getDuration())
+                .status(bet.getStatus())
+                .creatorId(idOf(bet.getCreator()))
+                .participantId(idOf(bet.getParticipant()))
+                .observerId(idOf(bet.getObserver()))
+                .winnerId(idOf(bet.getWinner()))
+                .forVotes(bet.getForVotes())
+                .againstVotes(bet.getAgainstVotes())
+                .createdAt(bet.getCreatedAt())
+                .updatedAt(bet.getUpdatedAt())
+                .resolvedAt(bet.getResolvedAt())
+                .build();
+    }
+
+    private static Long idOf(User user) {
+        return user != null ? user.getId() : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.betting.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BetLookupItem {
+    private Long id;
+    private boolean found; // false, если пари с таким id нет
+    private BetResponse bet; // null, если не найдено
+}
@@ -40,6 +40,11 @@ public class BetResponse {
                         Map.Entry::getValue
                 ));
         
+        return fromBet(bet, votesMap);
+    }
+    
+    // Голоса передаются снаружи, когда они загружены одним запросом на всю страницу
+    public static BetResponse fromBet(Bet bet, Map<String, VoteResult> votesMap) {
         return BetResponse.builder()
                 .id(bet.getId())
                 .title(bet.getTitle())
@@ -0,0 +1,20 @@
+package com.betting.dto.response;
+
+import com.betting.entity.BetStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BetStatsResponse {
+    private Map<BetStatus, Long> counts; // все статусы, включая нулевые
+    private long total;
+    private LocalDateTime refreshedAt; // последнее чтение счётчиков из БД
+}
@@ -0,0 +1,101 @@
+package com.betting.dto.response;
+
+import com.betting.entity.BetStatus;
+import com.betting.exception.BadRequestException;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Краткая карточка пари для списков. Выбирается прямо в JPQL конструктором, без описания,
+ * связей с пользователями и голосов. Незапрошенные в {@code fields} поля обнуляются
+ * и не попадают в JSON.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BetSummary {
+
+    public static final List<String> FIELDS =
+            List.of("id", "title", "status", "startDate", "duration", "createdAt", "creatorName", "shareUrl");
+
+    private Long id;
+    private String title;
+    private BetStatus status;
+    private LocalDateTime startDate;
+    private Integer duration;
+    private LocalDateTime createdAt;
+    private String creatorName;
+    private String shareUrl;
+
+    // Конструктор для SELECT new в запросах BetRepository
+    public BetSummary(Long id, String title, BetStatus status, LocalDateTime startDate, Integer duration,
+                      LocalDateTime createdAt, String creatorFirstName, String creatorLastName, String creatorEmail) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.startDate = startDate;
+        this.duration = duration;
+        this.createdAt = createdAt;
+        // Как User.getFullName(): имя и фамилия, что есть, иначе email
+        this.creatorName = creatorFirstName != null && creatorLastName != null
+                ? creatorFirstName + " " + creatorLastName
+                : creatorFirstName != null ? creatorFirstName
+                : creatorLastName != null ? creatorLastName
+                : creatorEmail;
+        this.shareUrl = "/bet/" + id;
+    }
+
+    /**
+     * Разбирает параметр {@code fields}: имена через запятую из {@link #FIELDS}; id возвращается всегда.
+     */
+    public static Set<String> parseFields(String fields) {
+        Set<String> requested = new LinkedHashSet<>();
+        requested.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!FIELDS.contains(name)) {
+                throw new BadRequestException("Неизвестное поле: " + name + ", доступны: " + String.join(",", FIELDS));
+            }
+            requested.add(name);
+        }
+        return requested;
+    }
+
+    public BetSummary only(Set<String> fields) {
+        if (!fields.contains("title")) {
+            title = null;
+        }
+        if (!fields.contains("status")) {
+            status = null;
+        }
+        if (!fields.contains("startDate")) {
+            startDate = null;
+        }
+        if (!fields.contains("duration")) {
+            duration = null;
+        }
+        if (!fields.contains("createdAt")) {
+            createdAt = null;
+        }
+        if (!fields.contains("creatorName")) {
+            creatorName = null;
+        }
+        if (!fields.contains("shareUrl")) {
+            shareUrl = null;
+        }
+        return this;
+    }
+}
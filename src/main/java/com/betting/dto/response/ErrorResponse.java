@@ -0,0 +1,16 @@
+package com.betting.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorResponse {
+    private int status;
+    private String code; // NOT_FOUND, CONFLICT, INVALID_STATE, ... — для программной обработки
+    private String message;
+}
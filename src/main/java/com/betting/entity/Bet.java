@@ -4,20 +4,30 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 @Entity
-@Table(name = "bets")
+@Table(name = "bets", indexes = {
+        @Index(name = "idx_bets_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_bets_status_created_at_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_bets_start_date_id", columnList = "start_date, id"),
+        @Index(name = "idx_bets_status_start_date_id", columnList = "status, start_date, id"),
+        @Index(name = "idx_bets_updated_at_id", columnList = "updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Bet {
     
+    // Id выделяются из последовательности блоками по 50: без IDENTITY Hibernate группирует INSERT в пакеты
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bets_seq")
+    @SequenceGenerator(name = "bets_seq", sequenceName = "bets_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -51,6 +61,12 @@ public class Bet {
     @JoinColumn(name = "winner_id")
     private User winner;
     
+    // Оптимистическая блокировка; массовые UPDATE в BetRepository увеличивают версию сами
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -60,6 +76,15 @@ public class Bet {
     @Column(name = "resolved_at")
     private LocalDateTime resolvedAt;
     
+    // Денормализованные счётчики голосов: меняются только атомарными UPDATE в BetRepository
+    @ColumnDefault("0")
+    @Column(name = "for_votes", nullable = false, insertable = false, updatable = false)
+    private int forVotes = 0;
+    
+    @ColumnDefault("0")
+    @Column(name = "against_votes", nullable = false, insertable = false, updatable = false)
+    private int againstVotes = 0;
+    
     @ElementCollection
     @CollectionTable(name = "bet_votes", joinColumns = @JoinColumn(name = "bet_id"))
     @MapKeyJoinColumn(name = "user_id")
@@ -87,15 +112,23 @@ public class Bet {
     }
     
     public boolean hasConflict() {
-        if (votes.size() < 2) return false;
-        
-        boolean hasWin = votes.values().stream().anyMatch(vote -> vote == VoteResult.WIN);
-        boolean hasLose = votes.values().stream().anyMatch(vote -> vote == VoteResult.LOSE);
-        
-        return hasWin && hasLose;
+        return forVotes > 0 && againstVotes > 0;
     }
     
     public boolean isResolved() {
         return status == BetStatus.RESOLVED || status == BetStatus.FINISHED;
     }
+    
+    // Равенство по идентификатору: Lombok-версия обходила все поля, включая ленивые связи и голоса
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Bet other)) return false;
+        return id != null && id.equals(other.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
 } 
\ No newline at end of file
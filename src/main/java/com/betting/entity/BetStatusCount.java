@@ -0,0 +1,26 @@
+package com.betting.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Число пари в статусе. Строки обновляются приращениями в той же транзакции,
+ * что и переход статуса, и периодически сверяются с таблицей bets.
+ */
+@Entity
+@Table(name = "bet_status_counts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BetStatusCount {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private BetStatus status;
+    
+    @Column(name = "bet_count", nullable = false)
+    private long count;
+}
@@ -0,0 +1,59 @@
+package com.betting.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Комментарий к пари. Таблица только пополняется: комментарии не редактируются,
+ * удаляются лишь вместе с пари.
+ */
+@Entity
+@Table(name = "bet_comments", indexes = {
+        @Index(name = "idx_bet_comments_bet_created_at_id", columnList = "bet_id, created_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Comment {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bet_comments_seq")
+    @SequenceGenerator(name = "bet_comments_seq", sequenceName = "bet_comments_seq", allocationSize = 50)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bet_id", nullable = false, updatable = false)
+    private Bet bet;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "author_id", nullable = false, updatable = false)
+    private User author;
+    
+    @Column(nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String text;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Comment other)) return false;
+        return id != null && id.equals(other.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
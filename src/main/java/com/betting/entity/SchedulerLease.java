@@ -0,0 +1,30 @@
+package com.betting.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Аренда фоновой задачи: строка на задачу, владелец продлевает её до {@code lockedUntil}.
+ * Пока аренда не истекла, задачу выполняет только её владелец.
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLease {
+    
+    @Id
+    @Column(length = 64)
+    private String name;
+    
+    @Column(nullable = false)
+    private String owner;
+    
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+}
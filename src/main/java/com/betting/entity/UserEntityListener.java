@@ -0,0 +1,37 @@
+package com.betting.entity;
+
+import com.betting.security.TokenVersionRegistry;
+import com.betting.service.UserCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserEntityListener {
+
+    // Слушатель создаётся Hibernate при сборке EntityManagerFactory, поэтому зависимости получаем лениво
+    private final ObjectProvider<TokenVersionRegistry> tokenVersionRegistry;
+    private final ObjectProvider<UserCache> userCache;
+
+    @PostPersist
+    public void afterPersist(User user) {
+        userCache.getObject().evict(user);
+    }
+
+    @PostUpdate
+    public void afterUpdate(User user) {
+        userCache.getObject().evict(user);
+        // Блокировка пользователя или смена версии токена отражаются в таблице отзыва после коммита
+        tokenVersionRegistry.getObject().update(user.getId(), user.getTokenVersion(), user.isActive());
+    }
+
+    @PostRemove
+    public void afterRemove(User user) {
+        userCache.getObject().evict(user);
+        tokenVersionRegistry.getObject().update(user.getId(), 0, false);
+    }
+}
@@ -0,0 +1,22 @@
+package com.betting.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Ожидаемый отказ в запросе (нет пари, неверный статус, нет прав). Такие исключения
+ * создаются на каждый отклонённый запрос, поэтому стек вызовов не заполняется:
+ * ответ клиенту строится {@link ApiExceptionHandler} только из статуса и сообщения.
+ */
+@Getter
+public abstract class ApiException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final String code;
+
+    protected ApiException(HttpStatus status, String code, String message) {
+        super(message, null, false, false);
+        this.status = status;
+        this.code = code;
+    }
+}
@@ -0,0 +1,147 @@
+package com.betting.exception;
+
+import com.betting.dto.response.ErrorResponse;
+import com.betting.security.RateLimitExceededException;
+import com.betting.service.PasswordHashingRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+import java.util.stream.Collectors;
+
+/**
+ * Единое отображение исключений в ответы {@link ErrorResponse}. Стандартные ошибки Spring MVC
+ * (валидация, нечитаемое тело, неверный тип параметра) обрабатывает базовый класс,
+ * здесь подменяется только тело ответа.
+ * <p>
+ * Клиенту, не принимающему JSON (подписка SSE с {@code Accept: text/event-stream}),
+ * отдаётся только статус: EventSource тело ошибки всё равно не читает.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<ErrorResponse> handleApiException(ApiException e, WebRequest request) {
+        return respond(ResponseEntity.status(e.getStatus()), toBody(e), request);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimit(RateLimitExceededException e, WebRequest request) {
+        return respond(ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds())), toBody(e), request);
+    }
+
+    // Очередь хеширования заполнена: отказываем сразу, клиент повторит позже
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleHashingRejected(PasswordHashingRejectedException e, WebRequest request) {
+        return respond(ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1"), toBody(e), request);
+    }
+
+    // Пул соединений исчерпан (или БД недоступна): при виртуальных потоках это и есть перегрузка.
+    // Чтение вне транзакции сервиса (хвост комментариев) получает соединение в репозитории,
+    // и тогда отказ приходит не как CannotCreateTransactionException, а как DataAccessResourceFailureException
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleNoConnection(RuntimeException e, WebRequest request) {
+        log.warn("Не удалось получить соединение с БД: {}", e.getMessage());
+        return respond(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1"), ErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .code("OVERLOADED")
+                .message("Сервис перегружен, повторите попытку позже")
+                .build(), request);
+    }
+
+    // Гонка версий, не перехваченная повтором
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLock(OptimisticLockingFailureException e, WebRequest request) {
+        return handleApiException(new ConflictException("Пари изменено другим запросом, повторите попытку"), request);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponse> handleAccessDenied(AccessDeniedException e, WebRequest request) {
+        return handleApiException(new ForbiddenException("Доступ запрещён"), request);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleUnexpected(Exception e, WebRequest request) {
+        log.error("Необработанная ошибка запроса", e);
+        return respond(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR), ErrorResponse.builder()
+                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                .code("INTERNAL_ERROR")
+                .message("Внутренняя ошибка сервера")
+                .build(), request);
+    }
+
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers,
+                                                             HttpStatusCode statusCode, WebRequest request) {
+        HttpStatus status = HttpStatus.resolve(statusCode.value());
+        ErrorResponse error = ErrorResponse.builder()
+                .status(statusCode.value())
+                .code(status != null ? status.name() : "ERROR")
+                .message(messageFor(ex, statusCode))
+                .build();
+        return super.handleExceptionInternal(ex, acceptsJson(request) ? error : null, headers, statusCode, request);
+    }
+
+    private static String messageFor(Exception ex, HttpStatusCode statusCode) {
+        if (ex instanceof MethodArgumentNotValidException invalid) {
+            return invalid.getBindingResult().getFieldErrors().stream()
+                    .map(FieldError::getDefaultMessage)
+                    .collect(Collectors.joining("; "));
+        }
+        HttpStatus status = HttpStatus.resolve(statusCode.value());
+        if (status == HttpStatus.NOT_FOUND) {
+            return "Ресурс не найден";
+        }
+        if (status == HttpStatus.METHOD_NOT_ALLOWED) {
+            return "Метод не поддерживается";
+        }
+        if (statusCode.is4xxClientError()) {
+            return "Некорректный запрос";
+        }
+        return status != null ? status.getReasonPhrase() : "Ошибка " + statusCode.value();
+    }
+
+    private static ResponseEntity<ErrorResponse> respond(ResponseEntity.BodyBuilder builder, ErrorResponse body,
+                                                         WebRequest request) {
+        return acceptsJson(request) ? builder.body(body) : builder.build();
+    }
+
+    private static boolean acceptsJson(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(type -> type.isCompatibleWith(MediaType.APPLICATION_JSON));
+        } catch (InvalidMediaTypeException e) {
+            return true;
+        }
+    }
+
+    private static ErrorResponse toBody(ApiException e) {
+        return ErrorResponse.builder()
+                .status(e.getStatus().value())
+                .code(e.getCode())
+                .message(e.getMessage())
+                .build();
+    }
+}
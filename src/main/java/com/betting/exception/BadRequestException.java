@@ -0,0 +1,13 @@
+package com.betting.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Некорректные параметры запроса: 400.
+ */
+public class BadRequestException extends ApiException {
+
+    public BadRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, "BAD_REQUEST", message);
+    }
+}
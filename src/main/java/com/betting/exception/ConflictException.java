@@ -0,0 +1,13 @@
+package com.betting.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Объект изменён другим запросом или уже существует: 409, запрос можно повторить.
+ */
+public class ConflictException extends ApiException {
+
+    public ConflictException(String message) {
+        super(HttpStatus.CONFLICT, "CONFLICT", message);
+    }
+}
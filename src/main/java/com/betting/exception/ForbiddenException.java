@@ -0,0 +1,13 @@
+package com.betting.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Действие не разрешено текущему пользователю: 403.
+ */
+public class ForbiddenException extends ApiException {
+
+    public ForbiddenException(String message) {
+        super(HttpStatus.FORBIDDEN, "FORBIDDEN", message);
+    }
+}
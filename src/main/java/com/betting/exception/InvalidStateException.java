@@ -0,0 +1,13 @@
+package com.betting.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Действие невозможно в текущем статусе объекта: 409, повтор без изменений не поможет.
+ */
+public class InvalidStateException extends ApiException {
+
+    public InvalidStateException(String message) {
+        super(HttpStatus.CONFLICT, "INVALID_STATE", message);
+    }
+}
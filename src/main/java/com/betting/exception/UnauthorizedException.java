@@ -0,0 +1,13 @@
+package com.betting.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Неверные учётные данные: 401.
+ */
+public class UnauthorizedException extends ApiException {
+
+    public UnauthorizedException(String message) {
+        super(HttpStatus.UNAUTHORIZED, "UNAUTHORIZED", message);
+    }
+}
@@ -1,22 +1,52 @@
 package com.betting.repository;
 
+import com.betting.dto.response.BetSummary;
 import com.betting.entity.Bet;
 import com.betting.entity.BetStatus;
+import com.betting.entity.User;
+import com.betting.entity.VoteResult;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BetRepository extends JpaRepository<Bet, Long> {
     
+    // План выборки для списков и карточки: все связи с пользователями одним запросом
+    @Override
+    @EntityGraph(attributePaths = {"creator", "participant", "observer", "winner"})
+    Page<Bet> findAll(Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"creator", "participant", "observer", "winner"})
     Page<Bet> findByStatus(BetStatus status, Pageable pageable);
     
+    @EntityGraph(attributePaths = {"creator", "participant", "observer", "winner"})
+    @Query("SELECT b FROM Bet b WHERE b.id = :id")
+    Optional<Bet> findDetailedById(@Param("id") Long id);
+    
+    @EntityGraph(attributePaths = {"creator", "participant", "observer", "winner"})
+    List<Bet> findByIdIn(Collection<Long> ids);
+    
+    // Голоса сразу для всей страницы: (bet_id, email, результат)
+    @Query("SELECT b.id, KEY(v).email, VALUE(v) FROM Bet b JOIN b.votes v WHERE b.id IN :ids")
+    List<Object[]> findVotesByBetIds(@Param("ids") Collection<Long> ids);
+    
+    @EntityGraph(attributePaths = {"creator", "participant", "observer", "winner"})
     @Query("SELECT b FROM Bet b WHERE " +
            "(:status IS NULL OR b.status = :status) AND " +
            "(:search IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -25,5 +55,234 @@ public interface BetRepository extends JpaRepository<Bet, Long> {
                                    @Param("search") String search, 
                                    Pageable pageable);
     
-    List<Bet> findByStatusAndStartDateBefore(BetStatus status, LocalDateTime date);
+    // Keyset-пагинация ленты: без COUNT и без пропуска строк. Отдельное нестрогое условие на ключ —
+    // граница диапазона в составных индексах bets: условие с OR само по себе индекс не ограничивает.
+    // Сравнение пар (ключ, id) < (...) было бы точнее, но Hibernate 6.3 не принимает его в JPQL
+    @EntityGraph(attributePaths = {"creator", "participant", "observer", "winner"})
+    @Query("SELECT b FROM Bet b WHERE b.createdAt <= :createdAt AND " +
+           "(b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Bet> findFeedByCreatedAt(@Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  Limit limit);
+    
+    @EntityGraph(attributePaths = {"creator", "participant", "observer", "winner"})
+    @Query("SELECT b FROM Bet b WHERE b.status = :status AND " +
+           "b.createdAt <= :createdAt AND " +
+           "(b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Bet> findFeedByStatusAndCreatedAt(@Param("status") BetStatus status,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Limit limit);
+    
+    @EntityGraph(attributePaths = {"creator", "participant", "observer", "winner"})
+    @Query("SELECT b FROM Bet b WHERE b.startDate >= :startDate AND " +
+           "(b.startDate > :startDate OR (b.startDate = :startDate AND b.id > :id)) " +
+           "ORDER BY b.startDate ASC, b.id ASC")
+    List<Bet> findFeedByStartDate(@Param("startDate") LocalDateTime startDate,
+                                  @Param("id") Long id,
+                                  Limit limit);
+    
+    @EntityGraph(attributePaths = {"creator", "participant", "observer", "winner"})
+    @Query("SELECT b FROM Bet b WHERE b.status = :status AND " +
+           "b.startDate >= :startDate AND " +
+           "(b.startDate > :startDate OR (b.startDate = :startDate AND b.id > :id)) " +
+           "ORDER BY b.startDate ASC, b.id ASC")
+    List<Bet> findFeedByStatusAndStartDate(@Param("status") BetStatus status,
+                                           @Param("startDate") LocalDateTime startDate,
+                                           @Param("id") Long id,
+                                           Limit limit);
+    
+    // Краткие карточки для списков: только нужные колонки bets и имя создателя, без описания и голосов
+    String SUMMARY_SELECT = "SELECT new com.betting.dto.response.BetSummary(b.id, b.title, b.status, b.startDate, " +
+            "b.duration, b.createdAt, c.firstName, c.lastName, c.email) FROM Bet b JOIN b.creator c ";
+    
+    @Query(value = SUMMARY_SELECT,
+           countQuery = "SELECT COUNT(b) FROM Bet b")
+    Page<BetSummary> findSummaries(Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE b.status = :status",
+           countQuery = "SELECT COUNT(b) FROM Bet b WHERE b.status = :status")
+    Page<BetSummary> findSummariesByStatus(@Param("status") BetStatus status, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE b.id IN :ids")
+    List<BetSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE " +
+                   "(:status IS NULL OR b.status = :status) AND " +
+                   "(:search IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                   "LOWER(b.description) LIKE LOWER(CONCAT('%', :search, '%')))",
+           countQuery = "SELECT COUNT(b) FROM Bet b WHERE " +
+                   "(:status IS NULL OR b.status = :status) AND " +
+                   "(:search IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                   "LOWER(b.description) LIKE LOWER(CONCAT('%', :search, '%')))")
+    Page<BetSummary> findSummariesByStatusAndSearch(@Param("status") BetStatus status,
+                                                    @Param("search") String search,
+                                                    Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE b.createdAt <= :createdAt AND " +
+           "(b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BetSummary> findSummaryFeedByCreatedAt(@Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE b.status = :status AND " +
+           "b.createdAt <= :createdAt AND " +
+           "(b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BetSummary> findSummaryFeedByStatusAndCreatedAt(@Param("status") BetStatus status,
+                                                         @Param("createdAt") LocalDateTime createdAt,
+                                                         @Param("id") Long id,
+                                                         Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE b.startDate >= :startDate AND " +
+           "(b.startDate > :startDate OR (b.startDate = :startDate AND b.id > :id)) " +
+           "ORDER BY b.startDate ASC, b.id ASC")
+    List<BetSummary> findSummaryFeedByStartDate(@Param("startDate") LocalDateTime startDate,
+                                                @Param("id") Long id,
+                                                Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE b.status = :status AND " +
+           "b.startDate >= :startDate AND " +
+           "(b.startDate > :startDate OR (b.startDate = :startDate AND b.id > :id)) " +
+           "ORDER BY b.startDate ASC, b.id ASC")
+    List<BetSummary> findSummaryFeedByStatusAndStartDate(@Param("status") BetStatus status,
+                                                         @Param("startDate") LocalDateTime startDate,
+                                                         @Param("id") Long id,
+                                                         Limit limit);
+    
+    // Выгрузка: курсор БД только вперёд, строки приходят порциями по fetch size, а не всем результатом сразу
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Bet b WHERE (:status IS NULL OR b.status = :status) AND " +
+           "b.createdAt >= :from AND b.createdAt < :to ORDER BY b.id")
+    Stream<Bet> streamForExport(@Param("status") BetStatus status,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+    
+    // Фактическое число пари по статусам для сверки счётчиков bet_status_counts
+    @Query("SELECT b.status, COUNT(b) FROM Bet b GROUP BY b.status")
+    List<Object[]> countByStatus();
+    
+    @Query("SELECT b.forVotes AS forVotes, b.againstVotes AS againstVotes FROM Bet b WHERE b.id = :id")
+    Optional<VoteTally> findVoteTally(@Param("id") Long id);
+    
+    // Голос пользователя по ключу bet_votes(bet_id, user_id), без загрузки всей коллекции
+    @Query("SELECT VALUE(v) FROM Bet b JOIN b.votes v WHERE b.id = :betId AND KEY(v).id = :userId")
+    Optional<VoteResult> findUserVote(@Param("betId") Long betId, @Param("userId") Long userId);
+    
+    // Меняет голос, только если он отличается от текущего; 1 — голос изменён
+    @Modifying
+    @Query(value = "UPDATE bet_votes SET vote_result = :result " +
+                   "WHERE bet_id = :betId AND user_id = :userId AND vote_result <> :result",
+           nativeQuery = true)
+    int changeVote(@Param("betId") Long betId, @Param("userId") Long userId, @Param("result") int result);
+    
+    // Добавляет голос, если пользователь ещё не голосовал; 1 — голос добавлен
+    @Modifying
+    @Query(value = "INSERT INTO bet_votes (bet_id, user_id, vote_result) " +
+                   "SELECT :betId, :userId, :result WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM bet_votes WHERE bet_id = :betId AND user_id = :userId)",
+           nativeQuery = true)
+    int insertVote(@Param("betId") Long betId, @Param("userId") Long userId, @Param("result") int result);
+    
+    // Счётчики и переход в CONFLICT одним оператором: строка пари блокируется на время UPDATE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.forVotes = b.forVotes + :forDelta, " +
+           "b.againstVotes = b.againstVotes + :againstDelta, " +
+           "b.status = CASE WHEN b.forVotes + :forDelta > 0 " +
+           "AND b.againstVotes + :againstDelta > 0 THEN :conflict ELSE b.status END, " +
+           "b.version = b.version + 1, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.status IN :votable")
+    int applyVoteDelta(@Param("id") Long id,
+                       @Param("forDelta") int forDelta,
+                       @Param("againstDelta") int againstDelta,
+                       @Param("votable") Collection<BetStatus> votable,
+                       @Param("conflict") BetStatus conflict,
+                       @Param("now") LocalDateTime now);
+    
+    // Присоединение условным UPDATE: роль занимается, только если она свободна и пари открыто
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.participant = :user, b.version = b.version + 1, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.status = :open AND b.participant IS NULL AND b.creator.id <> :userId")
+    int joinAsParticipant(@Param("id") Long id,
+                          @Param("user") User user,
+                          @Param("userId") Long userId,
+                          @Param("open") BetStatus open,
+                          @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.observer = :user, b.version = b.version + 1, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.status = :open AND b.observer IS NULL AND b.creator.id <> :userId")
+    int joinAsObserver(@Param("id") Long id,
+                       @Param("user") User user,
+                       @Param("userId") Long userId,
+                       @Param("open") BetStatus open,
+                       @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.status = :inProgress, b.version = b.version + 1, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.status = :open AND b.participant IS NOT NULL AND b.observer IS NOT NULL")
+    int startIfComplete(@Param("id") Long id,
+                        @Param("open") BetStatus open,
+                        @Param("inProgress") BetStatus inProgress,
+                        @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.status = :finished, b.version = b.version + 1, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.creator.id = :userId AND b.status IN :allowed")
+    int finishIfAllowed(@Param("id") Long id,
+                        @Param("userId") Long userId,
+                        @Param("allowed") Collection<BetStatus> allowed,
+                        @Param("finished") BetStatus finished,
+                        @Param("now") LocalDateTime now);
+    
+    // Порция для перестройки поискового индекса: только индексируемые поля, по возрастанию id
+    @Query("SELECT b.id, b.title, b.description, b.status FROM Bet b WHERE b.id > :afterId ORDER BY b.id")
+    List<Object[]> findSearchChunk(@Param("afterId") Long afterId, Limit limit);
+    
+    // Порция пари, изменённых с отметки, для догоняющей индексации; keyset по индексу (updated_at, id)
+    @Query("SELECT b.id, b.title, b.description, b.status, b.updatedAt FROM Bet b " +
+           "WHERE b.updatedAt >= :since AND (b.updatedAt > :since OR b.id > :afterId) " +
+           "ORDER BY b.updatedAt, b.id")
+    List<Object[]> findSearchChangesChunk(@Param("since") LocalDateTime since, @Param("afterId") Long afterId, Limit limit);
+    
+    // Порция открытых пари с наступившей датой начала; идёт по индексу (status, start_date, id)
+    @Query("SELECT b.id, b.title, b.description, b.startDate, b.duration FROM Bet b " +
+           "WHERE b.status = :open AND b.startDate < :now ORDER BY b.startDate, b.id")
+    List<Object[]> findExpiredChunk(@Param("open") BetStatus open, @Param("now") LocalDateTime now, Limit limit);
+    
+    // Переводит порцию в новый статус, только если пари всё ещё открыто
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.status = :implemented, b.updatedAt = :now, b.version = b.version + 1 " +
+           "WHERE b.id IN :ids AND b.status = :open AND b.startDate < :now")
+    int expireByIds(@Param("ids") Collection<Long> ids,
+                    @Param("open") BetStatus open,
+                    @Param("implemented") BetStatus implemented,
+                    @Param("now") LocalDateTime now);
+    
+    @Query("SELECT b.id FROM Bet b WHERE b.id IN :ids AND b.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") BetStatus status);
+    
+    // Порция сроков для загрузки колеса таймеров, по возрастанию id
+    @Query("SELECT b.id, b.startDate, b.duration FROM Bet b " +
+           "WHERE b.status = :status AND b.id > :afterId ORDER BY b.id")
+    List<Object[]> findDeadlineChunk(@Param("status") BetStatus status, @Param("afterId") Long afterId, Limit limit);
+    
+    // Поля для событий изменения пари без загрузки сущностей
+    @Query("SELECT b.id, b.title, b.description, b.startDate, b.duration FROM Bet b " +
+           "WHERE b.id IN :ids AND b.status = :status")
+    List<Object[]> findIndexFieldsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") BetStatus status);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Bet b SET b.status = :to, b.updatedAt = :now, b.version = b.version + 1 " +
+           "WHERE b.id IN :ids AND b.status = :from")
+    int moveByIds(@Param("ids") Collection<Long> ids,
+                  @Param("from") BetStatus from,
+                  @Param("to") BetStatus to,
+                  @Param("now") LocalDateTime now);
 } 
\ No newline at end of file
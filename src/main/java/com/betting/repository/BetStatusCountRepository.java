@@ -0,0 +1,26 @@
+package com.betting.repository;
+
+import com.betting.entity.BetStatus;
+import com.betting.entity.BetStatusCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BetStatusCountRepository extends JpaRepository<BetStatusCount, BetStatus> {
+    
+    // Приращение без чтения строки: блокировка строки держится только до коммита транзакции
+    @Modifying
+    @Query("UPDATE BetStatusCount c SET c.count = c.count + :delta WHERE c.status = :status")
+    int increment(@Param("status") BetStatus status, @Param("delta") long delta);
+    
+    // Создаёт строку статуса, если её ещё нет; при гонке двух вставок вторая упадёт на первичном ключе
+    @Modifying
+    @Query(value = "INSERT INTO bet_status_counts (status, bet_count) " +
+                   "SELECT :status, :count WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM bet_status_counts WHERE status = :status)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("status") String status, @Param("count") long count);
+}
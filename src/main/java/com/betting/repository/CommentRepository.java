@@ -0,0 +1,35 @@
+package com.betting.repository;
+
+import com.betting.entity.Comment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CommentRepository extends JpaRepository<Comment, Long> {
+    
+    // Новые сверху; автор — только id, пользователи догружаются одной пачкой на страницу
+    @Query("SELECT c.id, c.text, c.author.id, c.createdAt FROM Comment c WHERE c.bet.id = :betId " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Object[]> findLatest(@Param("betId") Long betId, Limit limit);
+    
+    // Keyset-пагинация по индексу (bet_id, created_at, id): нестрогое условие на created_at задаёт границу диапазона
+    @Query("SELECT c.id, c.text, c.author.id, c.createdAt FROM Comment c WHERE c.bet.id = :betId " +
+           "AND c.createdAt <= :createdAt " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Object[]> findBefore(@Param("betId") Long betId,
+                              @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id,
+                              Limit limit);
+    
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.bet.id = :betId")
+    int deleteByBetId(@Param("betId") Long betId);
+}
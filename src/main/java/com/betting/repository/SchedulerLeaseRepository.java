@@ -0,0 +1,34 @@
+package com.betting.repository;
+
+import com.betting.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+    
+    // Забирает истёкшую аренду или продлевает свою; 1 — аренда наша
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.lockedUntil = :until " +
+           "WHERE l.name = :name AND (l.owner = :owner OR l.lockedUntil < :now)")
+    int takeOver(@Param("name") String name, @Param("owner") String owner,
+                 @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+    
+    // Создаёт строку аренды, если её ещё нет; при гонке двух вставок вторая упадёт на первичном ключе
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_leases (name, owner, locked_until) " +
+                   "SELECT :name, :owner, :until WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM scheduler_leases WHERE name = :name)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+    
+    // Отпускает аренду досрочно, чтобы следующий запуск на любом инстансе не ждал её истечения
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.lockedUntil = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
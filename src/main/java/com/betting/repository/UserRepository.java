@@ -2,8 +2,10 @@ package com.betting.repository;
 
 import com.betting.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +16,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     
     Optional<User> findByEmailAndIsActiveTrue(String email);
+    
+    @Query("SELECT u.id, u.tokenVersion, u.isActive FROM User u WHERE u.tokenVersion > 0 OR u.isActive = false")
+    List<Object[]> findRevocationState();
 } 
\ No newline at end of file
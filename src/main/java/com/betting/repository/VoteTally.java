@@ -0,0 +1,6 @@
+package com.betting.repository;
+
+public interface VoteTally {
+    int getForVotes();
+    int getAgainstVotes();
+}
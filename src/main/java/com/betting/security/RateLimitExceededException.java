@@ -0,0 +1,20 @@
+package com.betting.security;
+
+import com.betting.exception.ApiException;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Превышен лимит частоты запросов; клиенту отвечают 429 с заголовком Retry-After.
+ */
+@Getter
+public class RateLimitExceededException extends ApiException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMITED",
+                "Слишком много запросов, повторите через " + retryAfterSeconds + " с");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
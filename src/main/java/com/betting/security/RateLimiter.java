@@ -0,0 +1,136 @@
+package com.betting.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничение частоты запросов в памяти инстанса по алгоритму GCRA: состояние ключа —
+ * одно {@link AtomicLong} с теоретическим временем следующего запроса, решение принимается
+ * одним CAS без блокировок и без выделения памяти для уже известного ключа.
+ * Ключ, чьё время уже наступило, неотличим от нового, поэтому такие ключи
+ * периодически удаляются без потери состояния.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    public enum Rule {
+        LOGIN_IP("login-ip", 30, 20),
+        LOGIN_EMAIL("login-email", 5, 5),
+        REGISTER_IP("register-ip", 5, 5),
+        MUTATIONS("mutations", 120, 60);
+
+        private final String property;
+        private final int defaultPerMinute;
+        private final int defaultBurst;
+
+        Rule(String property, int defaultPerMinute, int defaultBurst) {
+            this.property = property;
+            this.defaultPerMinute = defaultPerMinute;
+            this.defaultBurst = defaultBurst;
+        }
+    }
+
+    private final boolean enabled;
+    private final Map<Rule, Limit> limits = new EnumMap<>(Rule.class);
+
+    public RateLimiter(Environment environment,
+                       MeterRegistry meterRegistry,
+                       @Value("${rate-limit.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        for (Rule rule : Rule.values()) {
+            String prefix = "rate-limit." + rule.property;
+            int perMinute = environment.getProperty(prefix + ".per-minute", Integer.class, rule.defaultPerMinute);
+            int burst = environment.getProperty(prefix + ".burst", Integer.class, rule.defaultBurst);
+            Limit limit = new Limit(perMinute, burst, Counter.builder("rate-limit.rejected")
+                    .description("Запросы, отклонённые ограничением частоты")
+                    .tag("rule", rule.property)
+                    .register(meterRegistry));
+            limits.put(rule, limit);
+            Gauge.builder("rate-limit.keys", limit.buckets, Map::size)
+                    .description("Ключи с активным ограничением")
+                    .tag("rule", rule.property)
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Учитывает запрос по ключу. Возвращает 0, если запрос разрешён,
+     * иначе — через сколько наносекунд его можно повторить.
+     */
+    public long tryAcquire(Rule rule, String key) {
+        if (!enabled || key == null) {
+            return 0;
+        }
+        Limit limit = limits.get(rule);
+        AtomicLong bucket = limit.buckets.get(key);
+        if (bucket == null) {
+            bucket = limit.buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long tat = bucket.get();
+            long start = Math.max(tat, now);
+            long wait = start - now - limit.tolerance;
+            if (wait > 0) {
+                limit.rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, start + limit.interval)) {
+                return 0;
+            }
+        }
+    }
+
+    public static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    // Гонка с параллельным запросом может потерять одно его списание — это допустимо
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Limit limit : limits.values()) {
+            for (Map.Entry<String, AtomicLong> entry : limit.buckets.entrySet()) {
+                if (entry.getValue().get() - now <= 0 && limit.buckets.remove(entry.getKey(), entry.getValue())) {
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Удалено неактивных ключей ограничения частоты: {}", evicted);
+        }
+    }
+
+    private static final class Limit {
+
+        // Интервал между запросами и допустимое опережение графика (всплеск)
+        private final long interval;
+        private final long tolerance;
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final Counter rejected;
+
+        private Limit(int perMinute, int burst, Counter rejected) {
+            this.interval = TimeUnit.MINUTES.toNanos(1) / Math.max(perMinute, 1);
+            this.tolerance = interval * (Math.max(burst, 1) - 1);
+            this.rejected = rejected;
+        }
+    }
+}
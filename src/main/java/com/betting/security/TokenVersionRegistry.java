@@ -0,0 +1,120 @@
+package com.betting.security;
+
+import com.betting.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Таблица отзыва токенов: для каждого пользователя хранится минимальная допустимая
+ * версия токена. Пользователи без записи принимаются с любой версией, поэтому
+ * в памяти держатся только те, кто хотя бы раз выходил из системы или заблокирован.
+ * <p>
+ * Локальные изменения применяются после коммита; периодическая перезагрузка из БД
+ * не затирает изменения, применённые после начала её выборки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+
+    static final int REVOKED = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+
+    private volatile ConcurrentHashMap<Long, Integer> minVersions = new ConcurrentHashMap<>();
+
+    // Номер последнего локального изменения и номера изменений по пользователям, ещё не покрытые выборкой из БД
+    private final AtomicLong updateSequence = new AtomicLong();
+    private final Map<Long, Long> recentUpdates = new ConcurrentHashMap<>();
+    // Локальное изменение и подмена таблицы не должны чередоваться; проверка токена идёт без блокировки
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer min = minVersions.get(userId);
+        return min == null || tokenVersion >= min;
+    }
+
+    /**
+     * Отражает выход или блокировку пользователя. Внутри транзакции изменение применяется
+     * только после коммита, чтобы откаченная транзакция не отзывала токены.
+     */
+    public void update(Long userId, int tokenVersion, boolean active) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(userId, tokenVersion, active);
+                }
+            });
+        } else {
+            applyNow(userId, tokenVersion, active);
+        }
+    }
+
+    private void applyNow(Long userId, int tokenVersion, boolean active) {
+        updateLock.lock();
+        try {
+            apply(minVersions, userId, tokenVersion, active);
+            recentUpdates.put(userId, updateSequence.incrementAndGet());
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private static void apply(Map<Long, Integer> target, Long userId, int tokenVersion, boolean active) {
+        if (!active) {
+            target.put(userId, REVOKED);
+        } else if (tokenVersion > 0) {
+            target.put(userId, tokenVersion);
+        } else {
+            target.remove(userId);
+        }
+    }
+
+    // Подтягиваем отзывы, сделанные на других инстансах; выборка затрагивает только отозванных пользователей
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.stateless.revocation-refresh:30000}")
+    public void reload() {
+        // Изменения с номером после этой отметки могли не попасть в выборку
+        long snapshotStart = updateSequence.get();
+        List<Object[]> rows = userRepository.findRevocationState();
+        ConcurrentHashMap<Long, Integer> fresh = new ConcurrentHashMap<>();
+        for (Object[] row : rows) {
+            apply(fresh, (Long) row[0], (Integer) row[1], (Boolean) row[2]);
+        }
+
+        updateLock.lock();
+        try {
+            ConcurrentHashMap<Long, Integer> current = minVersions;
+            recentUpdates.forEach((userId, sequence) -> {
+                if (sequence > snapshotStart) {
+                    // Локальное изменение новее выборки: переносим его как есть
+                    Integer min = current.get(userId);
+                    if (min == null) {
+                        fresh.remove(userId);
+                    } else {
+                        fresh.put(userId, min);
+                    }
+                } else {
+                    recentUpdates.remove(userId, sequence);
+                }
+            });
+            minVersions = fresh;
+        } finally {
+            updateLock.unlock();
+        }
+        log.debug("Загружено записей отзыва токенов: {}", rows.size());
+    }
+}
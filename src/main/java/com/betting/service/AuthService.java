@@ -4,28 +4,37 @@ import com.betting.dto.request.LoginRequest;
 import com.betting.dto.request.RegisterRequest;
 import com.betting.entity.User;
 import com.betting.entity.UserRole;
+import com.betting.exception.ConflictException;
+import com.betting.exception.ForbiddenException;
+import com.betting.exception.NotFoundException;
+import com.betting.exception.UnauthorizedException;
 import com.betting.repository.UserRepository;
+import com.betting.security.RateLimitExceededException;
+import com.betting.security.RateLimiter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final PasswordHashingService passwordHashing;
+    private final RateLimiter rateLimiter;
     
     public User register(RegisterRequest request) {
         // Проверяем, существует ли пользователь с таким email
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new RuntimeException("Пользователь с таким email уже существует");
+        if (userRepository.existsByEmail(request.getEmail())) {
+            throw new ConflictException("Пользователь с таким email уже существует");
         }
         
         // Создаем нового пользователя
         User user = new User();
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashing.encode(request.getPassword()));
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setRole(UserRole.USER);
@@ -35,22 +44,54 @@ public class AuthService {
     }
     
     public User login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+        // Подбор пароля к одному аккаунту с разных адресов ограничивается по email
+        long wait = rateLimiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, request.getEmail());
+        if (wait > 0) {
+            throw new RateLimitExceededException(RateLimiter.toRetryAfterSeconds(wait));
+        }
+        
+        User user = userCache.findByEmail(request.getEmail())
+                .orElseThrow(() -> new UnauthorizedException("Пользователь не найден"));
         
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Неверный пароль");
+        if (!passwordHashing.matches(request.getPassword(), user.getPassword())) {
+            throw new UnauthorizedException("Неверный пароль");
         }
         
         if (!user.isActive()) {
-            throw new RuntimeException("Аккаунт заблокирован");
+            throw new ForbiddenException("Аккаунт заблокирован");
         }
         
+        if (passwordHashing.needsUpgrade(user.getPassword())) {
+            upgradePassword(user.getId(), request.getPassword());
+        }
         return user;
     }
     
+    // Пароль известен только при входе, поэтому хеш с устаревшей стоимостью bcrypt пересчитывается здесь
+    private void upgradePassword(Long userId, String rawPassword) {
+        try {
+            String hash = passwordHashing.encode(rawPassword);
+            // Пользователь из кэша общий и отсоединённый — меняем загруженного из репозитория
+            userRepository.findById(userId).ifPresent(user -> {
+                user.setPassword(hash);
+                userRepository.save(user);
+            });
+        } catch (PasswordHashingRejectedException e) {
+            // Очередь занята: вход уже успешен, пересчитаем при следующем
+            log.debug("Пересчёт хеша пароля пользователя {} отложен", userId);
+        }
+    }
+    
+    public void logout(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        // Повышение версии отзывает все ранее выданные токены пользователя
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+    }
+    
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+        return userCache.findByEmail(email)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.betting.service;
+
+import com.betting.entity.Bet;
+import com.betting.entity.BetStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Изменение пари, публикуется {@link BetService} и обрабатывается слушателями после коммита.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BetChangedEvent {
+
+    public enum Type {
+        CREATED, JOINED, VOTED, RESOLVED, FINISHED, EXPIRED, DELETED
+    }
+
+    private final Type type;
+    private final Long betId;
+    private final String title;
+    private final String description;
+    private final LocalDateTime startDate;
+    private final Integer duration;
+    private final BetStatus previousStatus;
+    private final BetStatus status;
+
+    public static BetChangedEvent of(Type type, Bet bet, BetStatus previousStatus) {
+        return new BetChangedEvent(type, bet.getId(), bet.getTitle(), bet.getDescription(),
+                bet.getStartDate(), bet.getDuration(), previousStatus, bet.getStatus());
+    }
+
+    public boolean isStatusChanged() {
+        return previousStatus != status;
+    }
+}
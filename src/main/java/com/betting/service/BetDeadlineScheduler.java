@@ -0,0 +1,212 @@
+package com.betting.service;
+
+import com.betting.entity.BetStatus;
+import com.betting.repository.BetRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Сроки пари в процессе: по истечении {@code startDate + duration} пари переходит
+ * в {@code IMPLEMENTED} (открывается голосование). Сроки всех активных пари держатся
+ * в {@link TimingWheel}, поэтому таблица не опрашивается: колесо загружается порциями
+ * при старте и дальше обновляется событиями изменения пари. Наступившие сроки
+ * переводятся пачками одним условным UPDATE; точность — один тик {@code bets.deadlines.tick}.
+ * На нескольких инстансах переход выполнит тот, чей UPDATE пройдёт первым.
+ * Если транзакция пачки не прошла, её сроки возвращаются в колесо через {@code bets.deadlines.retry-delay}.
+ */
+@Slf4j
+@Component
+public class BetDeadlineScheduler {
+
+    private static final int LEVELS = 4;
+
+    private final BetRepository betRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long retryDelayMillis;
+    private final TimingWheel wheel;
+    // Колесо меняют потоки запросов (события) и планировщик; ReentrantLock не закрепляет виртуальные потоки
+    private final ReentrantLock wheelLock = new ReentrantLock();
+
+    // Отмены, пришедшие во время загрузки, чтобы она не вернула сроки уже завершённых пари
+    private final Set<Long> cancelledDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded = false;
+
+    private final Counter firedCounter;
+
+    public BetDeadlineScheduler(BetRepository betRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${bets.deadlines.tick:1000}") long tickMillis,
+                                @Value("${bets.deadlines.chunk-size:500}") int chunkSize,
+                                @Value("${bets.deadlines.retry-delay:5000}") long retryDelayMillis) {
+        this.betRepository = betRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.retryDelayMillis = retryDelayMillis;
+        this.wheel = new TimingWheel(tickMillis, LEVELS, System.currentTimeMillis());
+        this.firedCounter = Counter.builder("bets.deadlines.fired")
+                .description("Пари, переведённые из IN_PROGRESS в IMPLEMENTED по сроку")
+                .register(meterRegistry);
+        Gauge.builder("bets.deadlines.pending", this, scheduler -> scheduler.pending())
+                .description("Сроки пари в колесе таймеров")
+                .register(meterRegistry);
+    }
+
+    public int pending() {
+        wheelLock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBetChanged(BetChangedEvent event) {
+        if (event.getStatus() == BetStatus.IN_PROGRESS && event.getType() != BetChangedEvent.Type.DELETED) {
+            schedule(event.getBetId(), event.getStartDate(), event.getDuration());
+        } else {
+            cancel(event.getBetId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        long afterId = 0;
+        int total = 0;
+        List<Object[]> chunk;
+        do {
+            chunk = betRepository.findDeadlineChunk(BetStatus.IN_PROGRESS, afterId, Limit.of(chunkSize));
+            wheelLock.lock();
+            try {
+                for (Object[] row : chunk) {
+                    Long id = (Long) row[0];
+                    if (!cancelledDuringLoad.contains(id)) {
+                        wheel.schedule(id, deadlineMillis((LocalDateTime) row[1], (Integer) row[2]));
+                    }
+                    afterId = id;
+                }
+            } finally {
+                wheelLock.unlock();
+            }
+            total += chunk.size();
+        } while (chunk.size() == chunkSize);
+
+        loaded = true;
+        cancelledDuringLoad.clear();
+        log.info("Сроки пари загружены: {} записей за {} мс", total, System.currentTimeMillis() - started);
+    }
+
+    @Scheduled(fixedDelayString = "${bets.deadlines.tick:1000}")
+    public void fire() {
+        List<Long> due;
+        wheelLock.lock();
+        try {
+            due = wheel.advance(System.currentTimeMillis());
+        } finally {
+            wheelLock.unlock();
+        }
+        for (int from = 0; from < due.size(); from += chunkSize) {
+            List<Long> ids = due.subList(from, Math.min(from + chunkSize, due.size()));
+            try {
+                Integer moved = transactionTemplate.execute(status -> implement(ids));
+                firedCounter.increment(moved);
+            } catch (RuntimeException e) {
+                // Сроки уже вынуты из колеса: без повтора пари остались бы IN_PROGRESS до перезапуска
+                log.warn("Не удалось перевести {} пари в IMPLEMENTED, повтор через {} мс", ids.size(), retryDelayMillis, e);
+                retry(ids);
+            }
+        }
+    }
+
+    // Срок, поставленный событием за время попытки, не перезаписывается; лишний повтор безвреден — UPDATE условный
+    private void retry(List<Long> ids) {
+        long deadline = System.currentTimeMillis() + retryDelayMillis;
+        wheelLock.lock();
+        try {
+            for (Long id : ids) {
+                if (!wheel.contains(id)) {
+                    wheel.schedule(id, deadline);
+                }
+            }
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    private int implement(List<Long> ids) {
+        List<Object[]> rows = betRepository.findIndexFieldsByIdInAndStatus(ids, BetStatus.IN_PROGRESS);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> candidates = rows.stream().map(row -> (Long) row[0]).toList();
+        LocalDateTime now = LocalDateTime.now();
+        int updated = betRepository.moveByIds(candidates, BetStatus.IN_PROGRESS, BetStatus.IMPLEMENTED, now);
+
+        // Часть пари мог перевести другой инстанс или голос — события только для переведённых здесь
+        Set<Long> implemented = updated == candidates.size()
+                ? Set.copyOf(candidates)
+                : Set.copyOf(betRepository.findIdsByIdInAndStatus(candidates, BetStatus.IMPLEMENTED));
+        for (Object[] row : rows) {
+            if (implemented.contains((Long) row[0])) {
+                eventPublisher.publishEvent(new BetChangedEvent(BetChangedEvent.Type.EXPIRED,
+                        (Long) row[0], (String) row[1], (String) row[2], (LocalDateTime) row[3], (Integer) row[4],
+                        BetStatus.IN_PROGRESS, BetStatus.IMPLEMENTED));
+            }
+        }
+        return updated;
+    }
+
+    private void schedule(Long id, LocalDateTime startDate, Integer duration) {
+        if (startDate == null || duration == null) {
+            return;
+        }
+        long deadline = deadlineMillis(startDate, duration);
+        wheelLock.lock();
+        try {
+            wheel.schedule(id, deadline);
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    private void cancel(Long id) {
+        wheelLock.lock();
+        try {
+            if (!loaded) {
+                cancelledDuringLoad.add(id);
+            }
+            wheel.cancel(id);
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    private static long deadlineMillis(LocalDateTime startDate, int duration) {
+        return startDate.plusHours(duration).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,115 @@
+package com.betting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Кэш карточек пари ({@code GET /bets/{id}}) в виде готового JSON.
+ * Запись сбрасывается после коммита любого изменения пари, поэтому версия в ETag
+ * всегда совпадает с версией в БД; {@code bets.detail-cache.ttl} ограничивает
+ * устаревание при изменениях на других инстансах и в профилях пользователей.
+ * Компонент не транзакционный: попадание в кэш не открывает транзакцию и не берёт соединение.
+ * Промах загружается вне операций карты: загрузчик внутри {@code compute} держал бы монитор
+ * корзины {@code ConcurrentHashMap} на время запроса к БД и закреплял бы виртуальные потоки.
+ * Одновременные промахи по одному пари ждут одну загрузку через {@link SingleFlight}.
+ */
+@Component
+public class BetDetailCache {
+
+    private static final int STRIPES = 64;
+
+    private final BetService betService;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Entry> entries;
+    private final SingleFlight<Long, Entry> loads;
+    // Счётчики сбросов по полосам id пари: загрузка, прочитавшая данные до коммита, не кладётся в кэш
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    public BetDetailCache(BetService betService,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${bets.detail-cache.max-size:10000}") long maxSize,
+                          @Value("${bets.detail-cache.ttl:5m}") Duration ttl) {
+        this.betService = betService;
+        this.objectMapper = objectMapper;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "bets.detail");
+        this.loads = new SingleFlight<>("detail", meterRegistry);
+    }
+
+    /**
+     * Карточка пари из кэша или из БД. Параллельные промахи по одному id ждут одну загрузку, не занимая карту кэша.
+     */
+    public Entry get(Long betId) {
+        Entry cached = entries.getIfPresent(betId);
+        if (cached != null) {
+            return cached;
+        }
+        return loads.execute(betId, () -> load(betId));
+    }
+
+    @TransactionalEventListener
+    public void onBetChanged(BetChangedEvent event) {
+        // Сначала отметка: загрузка, идущая сейчас, увидит её и не положит в кэш прочитанное до коммита
+        invalidations.incrementAndGet(stripe(event.getBetId()));
+        loads.forget(event.getBetId());
+        entries.invalidate(event.getBetId());
+    }
+
+    private Entry load(Long betId) {
+        int stripe = stripe(betId);
+        long stamp = invalidations.get(stripe);
+        VersionedBet bet = betService.getVersionedBet(betId);
+        Entry loaded;
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(bet.response());
+            loaded = new Entry(etag(bet.version(), json), json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать пари " + betId, e);
+        }
+
+        // Внутри compute только установка готового значения, без ввода-вывода
+        entries.asMap().compute(betId, (id, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            return invalidations.get(stripe) == stamp ? loaded : null;
+        });
+        return loaded;
+    }
+
+    private static int stripe(Long betId) {
+        return (int) (betId & (STRIPES - 1));
+    }
+
+    // Строгий ETag: версия пари и хэш тела, чтобы учесть и изменения связанных пользователей
+    private static String etag(Long version, byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            String digest = Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 16);
+            return "\"" + version + "-" + digest + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    public record Entry(String etag, byte[] json) {
+    }
+}
@@ -0,0 +1,299 @@
+package com.betting.service;
+
+import com.betting.dto.response.BetResponse;
+import com.betting.dto.response.CommentResponse;
+import com.betting.exception.NotFoundException;
+import com.betting.repository.BetRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Раздача изменений пари подписчикам SSE ({@code GET /bets/{id}/events}).
+ * Соединения асинхронные и не держат поток; запись в сокет идёт на небольшом пуле.
+ * Изменения пари за интервал {@code bets.events.coalesce-ms} склеиваются в одно
+ * событие {@code bet} с актуальным состоянием, которое читается из БД один раз на пари,
+ * а не на каждого подписчика. Комментарии доставляются каждый отдельно.
+ * У подписчика ограниченная очередь: кто не успевает её разбирать, отключается
+ * и переподключается сам (EventSource), перечитав состояние.
+ */
+@Slf4j
+@Component
+public class BetEventHub {
+
+    // Маркер в очереди подписчика: закрыть соединение после отправки предыдущих событий
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> COMPLETE = Set.of();
+
+    private final BetRepository betRepository;
+    private final BetService betService;
+    private final UserCache userCache;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final ExecutorService sender;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    // Пари, изменившиеся с прошлой рассылки; значение — удалено ли пари
+    private final Map<Long, Boolean> dirtyBets = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final Counter droppedCounter;
+
+    public BetEventHub(BetRepository betRepository,
+                       BetService betService,
+                       UserCache userCache,
+                       MeterRegistry meterRegistry,
+                       @Value("${bets.events.timeout:30m}") Duration timeout,
+                       @Value("${bets.events.buffer-size:32}") int bufferSize,
+                       @Value("${bets.events.sender-threads:4}") int senderThreads) {
+        this.betRepository = betRepository;
+        this.betService = betService;
+        this.userCache = userCache;
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Платформенные потоки и в режиме виртуальных: ResponseBodyEmitter.send пишет в сокет
+        // под монитором и закрепил бы виртуальный поток на носителе
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "bet-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.droppedCounter = Counter.builder("bets.events.dropped")
+                .description("Подписчики SSE, отключённые из-за переполнения очереди")
+                .register(meterRegistry);
+        Gauge.builder("bets.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Открытые SSE-подписки на пари")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long betId) {
+        if (!betRepository.existsById(betId)) {
+            throw new NotFoundException("Пари не найдено");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(betId, emitter);
+        // Добавление внутри compute: remove не может выбросить пустой набор между его получением и add
+        subscribers.compute(betId, (id, set) -> {
+            Set<Subscriber> targets = set == null ? ConcurrentHashMap.<Subscriber>newKeySet() : set;
+            targets.add(subscriber);
+            return targets;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        // Первое событие сразу отправляет заголовки ответа, чтобы клиент знал, что подписка открыта
+        subscriber.offer(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    // Подписчики, до которых дойдут события пари
+    int subscribers(Long betId) {
+        Set<Subscriber> targets = subscribers.get(betId);
+        return targets == null ? 0 : targets.size();
+    }
+
+    @TransactionalEventListener
+    public void onBetChanged(BetChangedEvent event) {
+        if (subscribers.containsKey(event.getBetId())) {
+            dirtyBets.merge(event.getBetId(), event.getType() == BetChangedEvent.Type.DELETED, Boolean::logicalOr);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        Set<Subscriber> targets = subscribers.get(event.getBetId());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        CommentEntry comment = event.getComment();
+        CommentResponse response = CommentService.toResponse(comment,
+                userCache.findById(comment.authorId()).orElse(null));
+        broadcast(targets, SseEmitter.event()
+                .name("comment")
+                .id(String.valueOf(comment.id()))
+                .data(response, MediaType.APPLICATION_JSON));
+    }
+
+    // Склеивание: все изменения пари за интервал уходят подписчикам одним событием
+    @Scheduled(fixedDelayString = "${bets.events.coalesce-ms:250}")
+    public void flush() {
+        for (Long betId : List.copyOf(dirtyBets.keySet())) {
+            Boolean deleted = dirtyBets.remove(betId);
+            Set<Subscriber> targets = subscribers.get(betId);
+            if (deleted == null || targets == null || targets.isEmpty()) {
+                continue;
+            }
+            if (deleted) {
+                broadcast(targets, SseEmitter.event().name("deleted").data(betId));
+                broadcast(targets, COMPLETE);
+                continue;
+            }
+            try {
+                BetResponse bet = betService.getBet(betId);
+                broadcast(targets, SseEmitter.event()
+                        .name("bet")
+                        .data(bet, MediaType.APPLICATION_JSON));
+            } catch (RuntimeException e) {
+                log.debug("Не удалось разослать состояние пари {}: {}", betId, e.getMessage());
+            }
+        }
+    }
+
+    // Пустые комментарии держат соединение через прокси и выявляют отключившихся клиентов
+    @Scheduled(fixedDelayString = "${bets.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Subscriber> targets : subscribers.values()) {
+            broadcast(targets, SseEmitter.event().comment("ping"));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(targets -> targets.forEach(Subscriber::complete));
+        sender.shutdownNow();
+    }
+
+    // Событие сериализуется в кадр один раз и разделяется всеми подписчиками
+    private void broadcast(Set<Subscriber> targets, SseEmitter.SseEventBuilder event) {
+        broadcast(targets, event.build());
+    }
+
+    private void broadcast(Set<Subscriber> targets, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(frame);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> targets = subscribers.get(subscriber.betId);
+        if (targets != null && targets.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(subscriber.betId, (id, set) -> set.isEmpty() ? null : set);
+        }
+    }
+
+    /**
+     * Подписчик с ограниченной очередью. Разбор очереди запускается на пуле отправки,
+     * только когда в ней что-то появилось, и для одного подписчика идёт не больше одного разбора.
+     */
+    private class Subscriber {
+
+        private final Long betId;
+        private final SseEmitter emitter;
+        // Очередь пополняют потоки запросов: ReentrantLock, чтобы не закреплять виртуальные потоки
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayDeque<>();
+        private boolean draining = false;
+        private boolean closed = false;
+
+        Subscriber(Long betId, SseEmitter emitter) {
+            this.betId = betId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= bufferSize && frame != COMPLETE) {
+                    // Медленный потребитель: отключаем, клиент переподключится и перечитает состояние
+                    droppedCounter.increment();
+                    closed = true;
+                    queue.clear();
+                } else {
+                    queue.add(frame);
+                    if (draining) {
+                        return;
+                    }
+                    draining = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (closed) {
+                complete();
+                return;
+            }
+            sender.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                List<Set<ResponseBodyEmitter.DataWithMediaType>> batch;
+                lock.lock();
+                try {
+                    if (queue.isEmpty() || closed) {
+                        draining = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(queue);
+                    queue.clear();
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    for (Set<ResponseBodyEmitter.DataWithMediaType> frame : batch) {
+                        if (frame == COMPLETE) {
+                            complete();
+                            return;
+                        }
+                        emitter.send(frame);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    lock.lock();
+                    try {
+                        closed = true;
+                        draining = false;
+                        queue.clear();
+                    } finally {
+                        lock.unlock();
+                    }
+                    remove(this);
+                    return;
+                }
+            }
+        }
+
+        void complete() {
+            lock.lock();
+            try {
+                closed = true;
+                queue.clear();
+            } finally {
+                lock.unlock();
+            }
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // соединение уже закрыто
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.betting.service;
+
+import com.betting.entity.BetStatus;
+import com.betting.repository.BetRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Переводит открытые пари с наступившей датой начала в {@code IMPLEMENTED}.
+ * Работает порциями: каждая порция — одна выборка id по индексу (status, start_date)
+ * и один массовый UPDATE в своей транзакции, поэтому блокировки держатся недолго.
+ * В кластере проход выполняет только инстанс, взявший аренду {@value #LEASE_NAME}.
+ */
+@Slf4j
+@Component
+public class BetExpirySweeper {
+
+    static final String LEASE_NAME = "bet-expiry-sweeper";
+
+    private final BetRepository betRepository;
+    private final SchedulerLeaseService leaseService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration leaseDuration;
+
+    private final Counter movedCounter;
+    private final Timer sweepTimer;
+
+    public BetExpirySweeper(BetRepository betRepository,
+                            SchedulerLeaseService leaseService,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${bets.expiry.chunk-size:500}") int chunkSize,
+                            @Value("${bets.expiry.lease-duration:5m}") Duration leaseDuration) {
+        this.betRepository = betRepository;
+        this.leaseService = leaseService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.leaseDuration = leaseDuration;
+        this.movedCounter = Counter.builder("bets.expiry.moved")
+                .description("Пари, переведённые из OPEN в IMPLEMENTED")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("bets.expiry.sweep")
+                .description("Длительность прохода по истёкшим пари")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${bets.expiry.initial-delay:30000}",
+               fixedDelayString = "${bets.expiry.interval:60000}")
+    public void sweep() {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            return;
+        }
+        try {
+            int moved = sweepTimer.record(() -> sweepChunks(LocalDateTime.now()));
+            if (moved > 0) {
+                log.info("Истёкших пари переведено в IMPLEMENTED: {}", moved);
+            }
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    private int sweepChunks(LocalDateTime now) {
+        int moved = 0;
+        int fetched;
+        do {
+            int[] result = transactionTemplate.execute(status -> expireChunk(now));
+            fetched = result[0];
+            moved += result[1];
+            movedCounter.increment(result[1]);
+            // Продлеваем аренду между порциями; если её перехватили, дальше идёт другой инстанс
+        } while (fetched == chunkSize && leaseService.tryAcquire(LEASE_NAME, leaseDuration));
+        return moved;
+    }
+
+    // Возвращает {выбрано, переведено}
+    private int[] expireChunk(LocalDateTime now) {
+        List<Object[]> rows = betRepository.findExpiredChunk(BetStatus.OPEN, now, Limit.of(chunkSize));
+        if (rows.isEmpty()) {
+            return new int[] {0, 0};
+        }
+        List<Long> ids = rows.stream().map(row -> (Long) row[0]).toList();
+        int updated = betRepository.expireByIds(ids, BetStatus.OPEN, BetStatus.IMPLEMENTED, now);
+
+        // Часть пари могла сменить статус между выборкой и UPDATE — события только для переведённых
+        Set<Long> expired = updated == ids.size()
+                ? new HashSet<>(ids)
+                : new HashSet<>(betRepository.findIdsByIdInAndStatus(ids, BetStatus.IMPLEMENTED));
+        for (Object[] row : rows) {
+            if (expired.contains((Long) row[0])) {
+                eventPublisher.publishEvent(new BetChangedEvent(BetChangedEvent.Type.EXPIRED,
+                        (Long) row[0], (String) row[1], (String) row[2], (LocalDateTime) row[3], (Integer) row[4],
+                        BetStatus.OPEN, BetStatus.IMPLEMENTED));
+            }
+        }
+        return new int[] {rows.size(), updated};
+    }
+}
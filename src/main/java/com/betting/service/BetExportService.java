@@ -0,0 +1,98 @@
+package com.betting.service;
+
+import com.betting.dto.response.BetExportRow;
+import com.betting.entity.Bet;
+import com.betting.entity.BetStatus;
+import com.betting.repository.BetRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка пари в NDJSON: одна строка JSON на пари. Строки читаются курсором БД
+ * и сразу пишутся в выходной поток, контекст персистентности очищается после каждой
+ * порции, поэтому память не зависит от числа выгружаемых пари.
+ */
+@Slf4j
+@Service
+public class BetExportService {
+
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final byte NEWLINE = '\n';
+
+    private final BetRepository betRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Counter exportedCounter;
+
+    public BetExportService(BetRepository betRepository,
+                            EntityManager entityManager,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${bets.export.chunk-size:500}") int chunkSize) {
+        this.betRepository = betRepository;
+        this.entityManager = entityManager;
+        this.writer = objectMapper.writerFor(BetExportRow.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.exportedCounter = Counter.builder("bets.export.rows")
+                .description("Пари, выгруженные через /bets/export")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Пишет пари с фильтром по статусу и дате создания {@code [from, to)} в поток по возрастанию id.
+     * Любой фильтр может быть null. Возвращает число выгруженных пари.
+     */
+    public long export(BetStatus status, LocalDateTime from, LocalDateTime to, OutputStream out) {
+        LocalDateTime lower = from != null ? from : MIN_DATE;
+        LocalDateTime upper = to != null ? to : MAX_DATE;
+        long started = System.currentTimeMillis();
+
+        // Курсор PostgreSQL с fetch size работает только внутри транзакции
+        Long exported = transactionTemplate.execute(tx -> {
+            long count = 0;
+            try (Stream<Bet> bets = betRepository.streamForExport(status, lower, upper)) {
+                Iterator<Bet> iterator = bets.iterator();
+                while (iterator.hasNext()) {
+                    out.write(writer.writeValueAsBytes(BetExportRow.fromBet(iterator.next())));
+                    out.write(NEWLINE);
+                    if (++count % chunkSize == 0) {
+                        // Прочитанные пари и прокси пользователей больше не нужны
+                        entityManager.clear();
+                        out.flush();
+                        exportedCounter.increment(chunkSize);
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                // Обычно клиент закрыл соединение: курсор закрывается, транзакция откатывается
+                throw new UncheckedIOException(e);
+            }
+            exportedCounter.increment(count % chunkSize);
+            return count;
+        });
+
+        log.info("Выгружено пари: {} за {} мс", exported, System.currentTimeMillis() - started);
+        return exported;
+    }
+}
@@ -0,0 +1,38 @@
+package com.betting.service;
+
+import com.betting.repository.VoteTally;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Склеивание горячих чтений счётчиков голосов по id пари. Загрузка идёт в собственной
+ * read-only транзакции, поэтому ожидающие запросы не держат соединения с БД.
+ * После коммита изменения пари текущие загрузки по нему отвязываются,
+ * и следующие запросы читают уже новые данные.
+ */
+@Component
+public class BetReadFlights {
+
+    private final SingleFlight<Long, VoteTally> tallies;
+    private final TransactionTemplate readOnly;
+
+    public BetReadFlights(MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.tallies = new SingleFlight<>("votes", meterRegistry);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    public VoteTally tally(Long betId, Supplier<VoteTally> loader) {
+        return tallies.execute(betId, () -> readOnly.execute(status -> loader.get()));
+    }
+
+    @TransactionalEventListener
+    public void onBetChanged(BetChangedEvent event) {
+        tallies.forget(event.getBetId());
+    }
+}
@@ -0,0 +1,286 @@
+package com.betting.service;
+
+import com.betting.entity.BetStatus;
+import com.betting.repository.BetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный индекс по названию и описанию пари в памяти.
+ * Каждое слово индексируется всеми префиксами от {@value #MIN_PREFIX} символов,
+ * поэтому поиск по началу слова — это один lookup в хэш-таблице на слово запроса.
+ * Индекс обновляется после коммита изменений пари и перестраивается при старте
+ * чтением таблицы порциями; пока перестройка не закончена, поиск идёт через БД.
+ * Изменения с других инстансов подхватываются догоняющим проходом по {@code updated_at}
+ * с перекрытием {@code bets.search.catch-up-lag} на расхождение часов и поздние коммиты.
+ * Пари, удалённые на других инстансах, остаются в индексе до перезапуска, но страница
+ * поиска их не показывает: строки догружаются из БД.
+ */
+@Slf4j
+@Component
+public class BetSearchIndex {
+
+    private static final int MIN_PREFIX = 2;
+    private static final int MAX_PREFIX = 20;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final BetRepository betRepository;
+    private final int rebuildChunkSize;
+    private final Duration catchUpLag;
+
+    // префикс -> (id пари -> вес совпадения)
+    private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedBet> documents = new ConcurrentHashMap<>();
+    // id -> момент удаления (nanoTime): выборка, начатая раньше, не должна вернуть удалённое пари
+    private final Map<Long, Long> tombstones = new ConcurrentHashMap<>();
+    // Изменения индекса приходят из потоков запросов; ReentrantLock не закрепляет виртуальные потоки
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile boolean ready = false;
+    // Все изменения с updated_at раньше этой отметки уже в индексе (с точностью до перекрытия)
+    private volatile LocalDateTime watermark;
+
+    public BetSearchIndex(BetRepository betRepository,
+                          @Value("${bets.search.rebuild-chunk-size:1000}") int rebuildChunkSize,
+                          @Value("${bets.search.catch-up-lag:1m}") Duration catchUpLag) {
+        this.betRepository = betRepository;
+        this.rebuildChunkSize = rebuildChunkSize;
+        this.catchUpLag = catchUpLag;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Возвращает id пари, содержащих все слова запроса (по началу слова), по убыванию релевантности.
+     */
+    public List<Long> search(String query, BetStatus status) {
+        List<String> terms = tokenize(query).stream()
+                .filter(term -> term.length() >= MIN_PREFIX)
+                .map(term -> term.length() > MAX_PREFIX ? term.substring(0, MAX_PREFIX) : term)
+                .distinct()
+                .toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        // Начинаем с самого короткого списка, остальные только сужают выборку
+        List<Map<Long, Integer>> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Map::size));
+
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : lists.get(0).entrySet()) {
+            Long id = entry.getKey();
+            IndexedBet doc = documents.get(id);
+            if (doc == null || (status != null && doc.status != status)) {
+                continue;
+            }
+            int score = entry.getValue();
+            for (int i = 1; i < lists.size() && score > 0; i++) {
+                Integer weight = lists.get(i).get(id);
+                score = weight == null ? 0 : score + weight;
+            }
+            if (score > 0) {
+                scores.put(id, score);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<Long, Integer>comparingByKey().reversed()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @TransactionalEventListener
+    public void onBetChanged(BetChangedEvent event) {
+        if (event.getType() == BetChangedEvent.Type.DELETED) {
+            remove(event.getBetId());
+        } else {
+            index(event.getBetId(), event.getTitle(), event.getDescription(), event.getStatus());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        LocalDateTime rebuildStarted = LocalDateTime.now();
+        long readStarted = System.nanoTime();
+        long afterId = 0;
+        int total = 0;
+        List<Object[]> chunk;
+        do {
+            chunk = betRepository.findSearchChunk(afterId, Limit.of(rebuildChunkSize));
+            for (Object[] row : chunk) {
+                Long id = (Long) row[0];
+                indexRow(id, (String) row[1], (String) row[2], (BetStatus) row[3], readStarted);
+                afterId = id;
+            }
+            total += chunk.size();
+        } while (chunk.size() == rebuildChunkSize);
+
+        watermark = rebuildStarted;
+        ready = true;
+        log.info("Поисковый индекс пари построен: {} записей за {} мс", total, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Догоняющий проход: переиндексирует пари, изменённые после отметки (с перекрытием),
+     * в том числе созданные и изменённые другими инстансами.
+     */
+    @Scheduled(initialDelayString = "${bets.search.catch-up-interval:30000}",
+               fixedDelayString = "${bets.search.catch-up-interval:30000}")
+    public void catchUp() {
+        if (!ready) {
+            return;
+        }
+        long readStarted = System.nanoTime();
+        LocalDateTime since = watermark.minus(catchUpLag);
+        LocalDateTime latest = watermark;
+        long afterId = 0;
+        int total = 0;
+        List<Object[]> chunk;
+        do {
+            chunk = betRepository.findSearchChangesChunk(since, afterId, Limit.of(rebuildChunkSize));
+            for (Object[] row : chunk) {
+                Long id = (Long) row[0];
+                indexRow(id, (String) row[1], (String) row[2], (BetStatus) row[3], readStarted);
+                since = (LocalDateTime) row[4];
+                afterId = id;
+            }
+            total += chunk.size();
+        } while (chunk.size() == rebuildChunkSize);
+
+        if (since.isAfter(latest)) {
+            watermark = since;
+        }
+        // Выборки, начатые до этого прохода, завершены: старые отметки удаления больше не нужны
+        tombstones.values().removeIf(removedAt -> removedAt - readStarted < 0);
+        log.debug("Догоняющая индексация пари: {} записей", total);
+    }
+
+    void index(Long id, String title, String description, BetStatus status) {
+        Map<String, Integer> weights = weights(title, description);
+        writeLock.lock();
+        try {
+            put(id, status, weights);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Строка, прочитанная из БД: событие или удаление, пришедшие после начала выборки, новее её
+    private void indexRow(Long id, String title, String description, BetStatus status, long readStarted) {
+        Map<String, Integer> weights = weights(title, description);
+        writeLock.lock();
+        try {
+            Long removedAt = tombstones.get(id);
+            IndexedBet current = documents.get(id);
+            if ((removedAt != null && removedAt - readStarted >= 0)
+                    || (current != null && current.indexedAt - readStarted >= 0)) {
+                return;
+            }
+            put(id, status, weights);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Разбор текста не трогает общие структуры и идёт вне блокировки
+    private static Map<String, Integer> weights(String title, String description) {
+        Map<String, Integer> weights = new HashMap<>();
+        addGrams(weights, title, TITLE_WEIGHT);
+        addGrams(weights, description, DESCRIPTION_WEIGHT);
+        return weights;
+    }
+
+    private void put(Long id, BetStatus status, Map<String, Integer> weights) {
+        IndexedBet previous = documents.put(id, new IndexedBet(status, weights.keySet(), System.nanoTime()));
+        if (previous != null) {
+            for (String gram : previous.grams) {
+                if (!weights.containsKey(gram)) {
+                    removePosting(gram, id);
+                }
+            }
+        }
+        weights.forEach((gram, weight) ->
+                postings.computeIfAbsent(gram, key -> new ConcurrentHashMap<>()).put(id, weight));
+    }
+
+    void remove(Long id) {
+        writeLock.lock();
+        try {
+            tombstones.put(id, System.nanoTime());
+            IndexedBet previous = documents.remove(id);
+            if (previous != null) {
+                for (String gram : previous.grams) {
+                    removePosting(gram, id);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void removePosting(String gram, Long id) {
+        postings.computeIfPresent(gram, (key, list) -> {
+            list.remove(id);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private static void addGrams(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            int maxLength = Math.min(token.length(), MAX_PREFIX);
+            for (int length = MIN_PREFIX; length <= maxLength; length++) {
+                weights.merge(token.substring(0, length), weight, Integer::sum);
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATOR.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record IndexedBet(BetStatus status, Set<String> grams, long indexedAt) {
+    }
+}
@@ -1,27 +1,50 @@
 package com.betting.service;
 
+import com.betting.dto.request.BetLookupRequest;
 import com.betting.dto.request.CreateBetRequest;
 import com.betting.dto.request.VoteRequest;
 import com.betting.dto.request.JoinBetRequest;
-import com.betting.dto.request.CommentRequest;
 import com.betting.dto.request.ResolveConflictRequest;
+import com.betting.dto.response.BetLookupItem;
 import com.betting.dto.response.BetResponse;
+import com.betting.dto.response.BetSummary;
+import com.betting.dto.response.CursorPageResponse;
 import com.betting.dto.response.VoteResponse;
-import com.betting.dto.response.CommentResponse;
 import com.betting.entity.Bet;
 import com.betting.entity.BetStatus;
 import com.betting.entity.User;
 import com.betting.entity.VoteResult;
+import com.betting.exception.ApiException;
+import com.betting.exception.BadRequestException;
+import com.betting.exception.ConflictException;
+import com.betting.exception.ForbiddenException;
+import com.betting.exception.InvalidStateException;
+import com.betting.exception.NotFoundException;
 import com.betting.repository.BetRepository;
+import com.betting.repository.CommentRepository;
 import com.betting.repository.UserRepository;
+import com.betting.repository.VoteTally;
+import com.betting.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,13 +52,52 @@ import java.util.stream.Collectors;
 @Transactional
 public class BetService {
     
+    private static final int MAX_FEED_LIMIT = 100;
+    private static final List<BetStatus> FINISHABLE_STATUSES = List.of(BetStatus.OPEN, BetStatus.IN_PROGRESS);
+    // Голосовать можно в процессе пари и после истечения его срока
+    private static final List<BetStatus> VOTABLE_STATUSES = List.of(BetStatus.IN_PROGRESS, BetStatus.IMPLEMENTED);
+    private static final LocalDateTime FEED_MIN_DATE = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime FEED_MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    
     private final BetRepository betRepository;
     private final UserRepository userRepository;
+    private final CommentRepository commentRepository;
+    private final BetSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticRetry optimisticRetry;
+    private final BetReadFlights readFlights;
     
-    public BetResponse createBet(CreateBetRequest request, String userEmail) {
-        User creator = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+    public BetResponse createBet(CreateBetRequest request, AuthenticatedUser user) {
+        Bet bet = newBet(request, userRepository.getReferenceById(user.getId()));
         
+        Bet savedBet = betRepository.save(bet);
+        eventPublisher.publishEvent(BetChangedEvent.of(BetChangedEvent.Type.CREATED, savedBet, null));
+        return BetResponse.fromBet(savedBet, Map.of());
+    }
+    
+    /**
+     * Создаёт пачку пари в одной транзакции: id выделяются из последовательности блоками,
+     * поэтому INSERT уходят пакетами по {@code hibernate.jdbc.batch_size}. Ошибка в любом
+     * пари откатывает всю пачку.
+     */
+    public List<BetResponse> createBets(List<CreateBetRequest> requests, AuthenticatedUser user) {
+        User creator = userRepository.getReferenceById(user.getId());
+        List<Bet> bets = requests.stream()
+                .map(request -> newBet(request, creator))
+                .toList();
+        
+        List<Bet> savedBets = betRepository.saveAll(bets);
+        betRepository.flush();
+        
+        List<BetResponse> responses = new ArrayList<>(savedBets.size());
+        for (Bet savedBet : savedBets) {
+            eventPublisher.publishEvent(BetChangedEvent.of(BetChangedEvent.Type.CREATED, savedBet, null));
+            responses.add(BetResponse.fromBet(savedBet, Map.of()));
+        }
+        return responses;
+    }
+    
+    private static Bet newBet(CreateBetRequest request, User creator) {
         Bet bet = new Bet();
         bet.setTitle(request.getTitle());
         bet.setDescription(request.getDescription());
@@ -43,16 +105,17 @@ public class BetService {
         bet.setDuration(request.getDuration());
         bet.setStatus(BetStatus.OPEN);
         bet.setCreator(creator);
-        
-        Bet savedBet = betRepository.save(bet);
-        return BetResponse.fromBet(savedBet);
+        return bet;
     }
     
     public Page<BetResponse> getBets(String status, String search, Pageable pageable) {
         Page<Bet> bets;
         
-        if (status != null && !status.isEmpty()) {
-            BetStatus betStatus = BetStatus.valueOf(status.toUpperCase());
+        if (search != null && !search.isEmpty() && searchIndex.isReady()) {
+            BetStatus betStatus = parseStatus(status);
+            bets = searchBets(search, betStatus, pageable);
+        } else if (status != null && !status.isEmpty()) {
+            BetStatus betStatus = parseStatus(status);
             if (search != null && !search.isEmpty()) {
                 bets = betRepository.findByStatusAndSearch(betStatus, search, pageable);
             } else {
@@ -66,235 +129,431 @@ public class BetService {
             }
         }
         
-        return bets.map(BetResponse::fromBet);
+        Map<Long, Map<String, VoteResult>> votes = loadVotes(bets.getContent());
+        return bets.map(bet -> BetResponse.fromBet(bet, votes.getOrDefault(bet.getId(), Map.of())));
     }
     
-    public BetResponse getBet(Long id) {
-        Bet bet = betRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Пари не найдено"));
-        return BetResponse.fromBet(bet);
+    public CursorPageResponse<BetResponse> getBetFeed(String status, String orderBy, String after, int limit) {
+        FeedQuery query = feedQuery(status, orderBy, after, limit);
+        BetCursor cursor = query.cursor();
+        List<Bet> rows;
+        if (query.order() == BetCursor.Order.CREATED_AT) {
+            rows = query.status() == null
+                    ? betRepository.findFeedByCreatedAt(cursor.getPosition(), cursor.getId(), query.fetchLimit())
+                    : betRepository.findFeedByStatusAndCreatedAt(query.status(), cursor.getPosition(), cursor.getId(), query.fetchLimit());
+        } else {
+            rows = query.status() == null
+                    ? betRepository.findFeedByStartDate(cursor.getPosition(), cursor.getId(), query.fetchLimit())
+                    : betRepository.findFeedByStatusAndStartDate(query.status(), cursor.getPosition(), cursor.getId(), query.fetchLimit());
+        }
+        
+        CursorPageResponse<Bet> page = toFeedPage(rows, query, Bet::getId, Bet::getCreatedAt, Bet::getStartDate);
+        Map<Long, Map<String, VoteResult>> votes = loadVotes(page.getContent());
+        return CursorPageResponse.<BetResponse>builder()
+                .content(page.getContent().stream()
+                        .map(bet -> BetResponse.fromBet(bet, votes.getOrDefault(bet.getId(), Map.of())))
+                        .toList())
+                .nextCursor(page.getNextCursor())
+                .hasNext(page.isHasNext())
+                .size(page.getSize())
+                .build();
     }
     
-    public BetResponse joinBet(Long betId, String role, String userEmail) {
-        Bet bet = betRepository.findById(betId)
-                .orElseThrow(() -> new RuntimeException("Пари не найдено"));
+    /**
+     * Та же лента, но краткими карточками {@link BetSummary}: только запрошенные поля,
+     * выбранные одним JPQL-запросом без описания, пользователей и голосов.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<BetSummary> getBetSummaryFeed(String status, String orderBy, String after, int limit, String fields) {
+        Set<String> selected = BetSummary.parseFields(fields);
+        FeedQuery query = feedQuery(status, orderBy, after, limit);
+        BetCursor cursor = query.cursor();
+        List<BetSummary> rows;
+        if (query.order() == BetCursor.Order.CREATED_AT) {
+            rows = query.status() == null
+                    ? betRepository.findSummaryFeedByCreatedAt(cursor.getPosition(), cursor.getId(), query.fetchLimit())
+                    : betRepository.findSummaryFeedByStatusAndCreatedAt(query.status(), cursor.getPosition(), cursor.getId(), query.fetchLimit());
+        } else {
+            rows = query.status() == null
+                    ? betRepository.findSummaryFeedByStartDate(cursor.getPosition(), cursor.getId(), query.fetchLimit())
+                    : betRepository.findSummaryFeedByStatusAndStartDate(query.status(), cursor.getPosition(), cursor.getId(), query.fetchLimit());
+        }
         
-        if (bet.getStatus() != BetStatus.OPEN) {
-            throw new RuntimeException("Нельзя присоединиться к пари в статусе " + bet.getStatus());
+        // Курсор строится до обнуления полей: ключ сортировки мог быть не запрошен
+        CursorPageResponse<BetSummary> page = toFeedPage(rows, query,
+                BetSummary::getId, BetSummary::getCreatedAt, BetSummary::getStartDate);
+        page.getContent().forEach(summary -> summary.only(selected));
+        return page;
+    }
+    
+    private FeedQuery feedQuery(String status, String orderBy, String after, int limit) {
+        BetCursor.Order order = "startDate".equals(orderBy) ? BetCursor.Order.START_DATE : BetCursor.Order.CREATED_AT;
+        BetStatus betStatus = parseStatus(status);
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_LIMIT));
+        
+        // Первая страница начинается с граничного значения ключа, чтобы обойтись теми же запросами
+        BetCursor cursor = (after != null && !after.isEmpty())
+                ? BetCursor.decode(after, order)
+                : order == BetCursor.Order.CREATED_AT
+                        ? new BetCursor(order, FEED_MAX_DATE, Long.MAX_VALUE)
+                        : new BetCursor(order, FEED_MIN_DATE, 0L);
+        return new FeedQuery(order, betStatus, cursor, pageSize);
+    }
+    
+    // Неизвестный статус в параметре запроса — ошибка клиента, а не 500
+    private static BetStatus parseStatus(String status) {
+        if (status == null || status.isEmpty()) {
+            return null;
         }
+        try {
+            return BetStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Неизвестный статус пари: " + status);
+        }
+    }
+    
+    private static <T> CursorPageResponse<T> toFeedPage(List<T> rows, FeedQuery query,
+                                                        Function<T, Long> id,
+                                                        Function<T, LocalDateTime> createdAt,
+                                                        Function<T, LocalDateTime> startDate) {
+        boolean hasNext = rows.size() > query.pageSize();
+        List<T> page = hasNext ? rows.subList(0, query.pageSize()) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            T last = page.get(page.size() - 1);
+            LocalDateTime position = query.order() == BetCursor.Order.CREATED_AT ? createdAt.apply(last) : startDate.apply(last);
+            nextCursor = new BetCursor(query.order(), position, id.apply(last)).encode();
+        }
+        return CursorPageResponse.<T>builder()
+                .content(page)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(page.size())
+                .build();
+    }
+    
+    private record FeedQuery(BetCursor.Order order, BetStatus status, BetCursor cursor, int pageSize) {
         
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+        // Берём на одну запись больше, чтобы узнать о наличии следующей страницы без COUNT
+        Limit fetchLimit() {
+            return Limit.of(pageSize + 1);
+        }
+    }
+    
+    /**
+     * Страница списка краткими карточками {@link BetSummary} с полями из {@code fields}.
+     */
+    @Transactional(readOnly = true)
+    public Page<BetSummary> getBetSummaries(String status, String search, Pageable pageable, String fields) {
+        Set<String> selected = BetSummary.parseFields(fields);
+        BetStatus betStatus = parseStatus(status);
+        boolean hasSearch = search != null && !search.isEmpty();
+        
+        Page<BetSummary> summaries;
+        if (hasSearch && searchIndex.isReady()) {
+            summaries = searchPage(search, betStatus, pageable, betRepository::findSummariesByIdIn, BetSummary::getId);
+        } else if (hasSearch) {
+            summaries = betRepository.findSummariesByStatusAndSearch(betStatus, search, pageable);
+        } else if (betStatus != null) {
+            summaries = betRepository.findSummariesByStatus(betStatus, pageable);
+        } else {
+            summaries = betRepository.findSummaries(pageable);
+        }
+        return summaries.map(summary -> summary.only(selected));
+    }
+    
+    // Ранжированные id из индекса, страница догружается одним запросом с сохранением порядка
+    private Page<Bet> searchBets(String search, BetStatus status, Pageable pageable) {
+        return searchPage(search, status, pageable, betRepository::findByIdIn, Bet::getId);
+    }
+    
+    private <T> Page<T> searchPage(String search, BetStatus status, Pageable pageable,
+                                   Function<Collection<Long>, List<T>> loader, Function<T, Long> id) {
+        List<Long> ranked = searchIndex.search(search, status);
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<Long> pageIds = ranked.subList(from, to);
+        
+        Map<Long, T> loaded = loader.apply(pageIds).stream()
+                .collect(Collectors.toMap(id, Function.identity()));
+        List<T> content = pageIds.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+    
+    @Transactional(readOnly = true)
+    public BetResponse getBet(Long id) {
+        Bet bet = betRepository.findDetailedById(id)
+                .orElseThrow(() -> new NotFoundException("Пари не найдено"));
+        return toResponse(bet);
+    }
+    
+    // Одновременные промахи по одному id склеивает BetDetailCache: они ждут одну загрузку вне монитора карты
+    @Transactional(readOnly = true)
+    public VersionedBet getVersionedBet(Long id) {
+        Bet bet = betRepository.findDetailedById(id)
+                .orElseThrow(() -> new NotFoundException("Пари не найдено"));
+        return new VersionedBet(bet.getVersion(), toResponse(bet));
+    }
+    
+    /**
+     * Несколько пари по списку id за два запроса: пари со всеми пользователями и голоса.
+     * Ответ идёт в порядке запроса, для отсутствующих id — элемент с {@code found = false}.
+     */
+    @Transactional(readOnly = true)
+    public List<BetLookupItem> lookupBets(List<Long> ids) {
+        if (ids.size() > BetLookupRequest.MAX_IDS) {
+            throw new BadRequestException("За один запрос можно получить не больше " + BetLookupRequest.MAX_IDS + " пари");
+        }
+        List<Bet> bets = betRepository.findByIdIn(ids.stream().distinct().toList());
+        Map<Long, Map<String, VoteResult>> votes = loadVotes(bets);
+        Map<Long, BetResponse> found = new HashMap<>();
+        for (Bet bet : bets) {
+            found.put(bet.getId(), BetResponse.fromBet(bet, votes.getOrDefault(bet.getId(), Map.of())));
+        }
         
-        if (bet.getCreator().getId().equals(user.getId())) {
-            throw new RuntimeException("Создатель не может присоединиться к своему пари");
+        return ids.stream()
+                .map(id -> BetLookupItem.builder()
+                        .id(id)
+                        .found(found.containsKey(id))
+                        .bet(found.get(id))
+                        .build())
+                .toList();
+    }
+    
+    public BetResponse joinBet(Long betId, String role, AuthenticatedUser user) {
+        if (!"PARTICIPANT".equals(role) && !"OBSERVER".equals(role)) {
+            throw new BadRequestException("Неверная роль: " + role);
         }
         
-        if ("PARTICIPANT".equals(role)) {
-            if (bet.getParticipant() != null) {
-                throw new RuntimeException("Участник уже присоединился к пари");
-            }
-            bet.setParticipant(user);
-        } else if ("OBSERVER".equals(role)) {
-            if (bet.getObserver() != null) {
-                throw new RuntimeException("Наблюдатель уже присоединился к пари");
-            }
-            bet.setObserver(user);
-        } else {
-            throw new RuntimeException("Неверная роль: " + role);
+        // Роль занимается условным UPDATE: из двух одновременных запросов пройдёт только один
+        User userRef = userRepository.getReferenceById(user.getId());
+        LocalDateTime now = LocalDateTime.now();
+        int joined = "PARTICIPANT".equals(role)
+                ? betRepository.joinAsParticipant(betId, userRef, user.getId(), BetStatus.OPEN, now)
+                : betRepository.joinAsObserver(betId, userRef, user.getId(), BetStatus.OPEN, now);
+        if (joined == 0) {
+            throw joinRejection(betId, role, user);
         }
         
         // Проверяем, нужно ли изменить статус
-        if (bet.hasAllParticipants()) {
-            bet.setStatus(BetStatus.IN_PROGRESS);
-        }
+        betRepository.startIfComplete(betId, BetStatus.OPEN, BetStatus.IN_PROGRESS, now);
         
-        Bet savedBet = betRepository.save(bet);
-        return BetResponse.fromBet(savedBet);
+        Bet savedBet = betRepository.findDetailedById(betId)
+                .orElseThrow(() -> new NotFoundException("Пари не найдено"));
+        eventPublisher.publishEvent(BetChangedEvent.of(BetChangedEvent.Type.JOINED, savedBet, BetStatus.OPEN));
+        // В открытом пари голосов ещё нет
+        return BetResponse.fromBet(savedBet, Map.of());
     }
     
+    // Условный UPDATE не прошёл: перечитываем пари, чтобы объяснить причину
+    private ApiException joinRejection(Long betId, String role, AuthenticatedUser user) {
+        Bet bet = betRepository.findById(betId).orElse(null);
+        if (bet == null) {
+            return new NotFoundException("Пари не найдено");
+        }
+        if (bet.getStatus() != BetStatus.OPEN) {
+            return new InvalidStateException("Нельзя присоединиться к пари в статусе " + bet.getStatus());
+        }
+        if (bet.getCreator().getId().equals(user.getId())) {
+            return new ForbiddenException("Создатель не может присоединиться к своему пари");
+        }
+        if ("PARTICIPANT".equals(role) && bet.getParticipant() != null) {
+            return new InvalidStateException("Участник уже присоединился к пари");
+        }
+        if ("OBSERVER".equals(role) && bet.getObserver() != null) {
+            return new InvalidStateException("Наблюдатель уже присоединился к пари");
+        }
+        return new ConflictException("Пари изменено другим запросом, повторите попытку");
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public VoteResponse getVotes(Long betId) {
-        Bet bet = betRepository.findById(betId)
-                .orElseThrow(() -> new RuntimeException("Пари не найдено"));
-        
-        // Подсчитываем голоса
-        long forVotes = bet.getVotes().values().stream()
-                .filter(vote -> vote == VoteResult.WIN)
-                .count();
-        
-        long againstVotes = bet.getVotes().values().stream()
-                .filter(vote -> vote == VoteResult.LOSE)
-                .count();
+        VoteTally tally = loadTally(betId);
         
         return VoteResponse.builder()
-                .forVotes((int) forVotes)
-                .againstVotes((int) againstVotes)
-                .userVote(null) // TODO: добавить проверку голоса текущего пользователя
+                .forVotes(tally.getForVotes())
+                .againstVotes(tally.getAgainstVotes())
+                .userVote(null)
                 .build();
     }
     
-    public VoteResponse getVotes(Long betId, String userEmail) {
-        Bet bet = betRepository.findById(betId)
-                .orElseThrow(() -> new RuntimeException("Пари не найдено"));
-        
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public VoteResponse getVotes(Long betId, AuthenticatedUser user) {
+        // Счётчики хранятся в строке пари и общие для всех, голос пользователя — точечный запрос по ключу
+        VoteTally tally = loadTally(betId);
         
-        // Подсчитываем голоса
-        long forVotes = bet.getVotes().values().stream()
-                .filter(vote -> vote == VoteResult.WIN)
-                .count();
-        
-        long againstVotes = bet.getVotes().values().stream()
-                .filter(vote -> vote == VoteResult.LOSE)
-                .count();
-        
-        // Проверяем голос текущего пользователя
-        VoteResult userVote = bet.getVotes().get(user);
-        Boolean userVoteBoolean = null;
-        if (userVote != null) {
-            userVoteBoolean = (userVote == VoteResult.WIN);
-        }
+        Boolean userVoteBoolean = betRepository.findUserVote(betId, user.getId())
+                .map(vote -> vote == VoteResult.WIN)
+                .orElse(null);
         
         return VoteResponse.builder()
-                .forVotes((int) forVotes)
-                .againstVotes((int) againstVotes)
+                .forVotes(tally.getForVotes())
+                .againstVotes(tally.getAgainstVotes())
                 .userVote(userVoteBoolean)
                 .build();
     }
     
-    public BetResponse vote(Long betId, VoteRequest request, String userEmail) {
-        Bet bet = betRepository.findById(betId)
-                .orElseThrow(() -> new RuntimeException("Пари не найдено"));
+    private VoteTally loadTally(Long betId) {
+        return readFlights.tally(betId, () -> betRepository.findVoteTally(betId)
+                .orElseThrow(() -> new NotFoundException("Пари не найдено")));
+    }
+    
+    public BetResponse vote(Long betId, VoteRequest request, AuthenticatedUser user) {
+        Bet bet = betRepository.findDetailedById(betId)
+                .orElseThrow(() -> new NotFoundException("Пари не найдено"));
         
-        if (bet.getStatus() != BetStatus.IN_PROGRESS) {
-            throw new RuntimeException("Голосовать можно только в процессе пари");
+        if (!VOTABLE_STATUSES.contains(bet.getStatus())) {
+            throw new InvalidStateException("Голосовать можно только в процессе пари или после его окончания");
         }
-        
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+        BetStatus previousStatus = bet.getStatus();
         
         // Проверяем, что пользователь является участником или наблюдателем
         if ((bet.getParticipant() == null || !bet.getParticipant().getId().equals(user.getId())) && 
             (bet.getObserver() == null || !bet.getObserver().getId().equals(user.getId()))) {
-            throw new RuntimeException("Голосовать могут только участники и наблюдатели");
+            throw new ForbiddenException("Голосовать могут только участники и наблюдатели");
         }
         
-        // Сохраняем голос
+        // Сохраняем голос: смена существующего или добавление нового, без загрузки всей коллекции
         VoteResult voteResult = request.isVote() ? VoteResult.WIN : VoteResult.LOSE;
-        bet.getVotes().put(user, voteResult);
-        
-        // Проверяем, не возник ли конфликт
-        if (bet.hasConflict()) {
-            bet.setStatus(BetStatus.CONFLICT);
+        int forDelta = 0;
+        int againstDelta = 0;
+        if (betRepository.changeVote(betId, user.getId(), voteResult.ordinal()) == 1) {
+            forDelta = voteResult == VoteResult.WIN ? 1 : -1;
+            againstDelta = -forDelta;
+        } else if (insertVote(betId, user.getId(), voteResult) == 1) {
+            forDelta = voteResult == VoteResult.WIN ? 1 : 0;
+            againstDelta = voteResult == VoteResult.LOSE ? 1 : 0;
         }
         
-        Bet savedBet = betRepository.save(bet);
-        return BetResponse.fromBet(savedBet);
+        Bet savedBet = bet;
+        if (forDelta != 0 || againstDelta != 0) {
+            // Счётчики и переход в CONFLICT обновляются в БД, затем читаем актуальное состояние.
+            // Условие на прочитанный статус: исходный статус перехода в событии должен быть точным
+            int updated = betRepository.applyVoteDelta(betId, forDelta, againstDelta,
+                    List.of(previousStatus), BetStatus.CONFLICT, LocalDateTime.now());
+            if (updated == 0) {
+                // Статус успели сменить: голос откатывается вместе с транзакцией
+                BetStatus current = betRepository.findById(betId).map(Bet::getStatus).orElse(null);
+                if (VOTABLE_STATUSES.contains(current)) {
+                    throw new ConflictException("Пари изменено другим запросом, повторите попытку");
+                }
+                throw new InvalidStateException("Голосовать можно только в процессе пари или после его окончания");
+            }
+            savedBet = betRepository.findDetailedById(betId)
+                    .orElseThrow(() -> new NotFoundException("Пари не найдено"));
+        }
+        eventPublisher.publishEvent(BetChangedEvent.of(BetChangedEvent.Type.VOTED, savedBet, previousStatus));
+        return toResponse(savedBet);
     }
     
-    public List<CommentResponse> getComments(Long betId) {
-        Bet bet = betRepository.findById(betId)
-                .orElseThrow(() -> new RuntimeException("Пари не найдено"));
-        
-        // Здесь должна быть логика получения комментариев
-        // Пока возвращаем пустой список
-        return List.of();
+    // NOT EXISTS не защищает от двух одновременных первых голосов: проигравший INSERT нарушает
+    // первичный ключ, а транзакция после этого уже не годится для повтора — клиент повторяет запрос
+    private int insertVote(Long betId, Long userId, VoteResult voteResult) {
+        try {
+            return betRepository.insertVote(betId, userId, voteResult.ordinal());
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Голос изменён другим запросом, повторите попытку");
+        }
     }
     
-    public CommentResponse addComment(Long betId, String text, String userEmail) {
-        Bet bet = betRepository.findById(betId)
-                .orElseThrow(() -> new RuntimeException("Пари не найдено"));
-        
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
-        
-        // Здесь должна быть логика сохранения комментария
-        // Пока возвращаем заглушку
-        return CommentResponse.builder()
-                .id(1L)
-                .text(text)
-                .author(com.betting.dto.response.UserResponse.fromUser(user))
-                .createdAt(LocalDateTime.now())
-                .build();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BetResponse resolveConflict(Long betId, String winner, AuthenticatedUser user) {
+        // Изменение через сущность с @Version: при гонке попытка повторяется на свежих данных
+        return optimisticRetry.execute(() -> {
+            Bet bet = betRepository.findDetailedById(betId)
+                    .orElseThrow(() -> new NotFoundException("Пари не найдено"));
+            
+            if (bet.getStatus() != BetStatus.CONFLICT) {
+                throw new InvalidStateException("Конфликт можно разрешить только в статусе CONFLICT");
+            }
+            
+            // Проверяем, что пользователь является создателем или наблюдателем
+            if (!bet.getCreator().getId().equals(user.getId()) && 
+                (bet.getObserver() == null || !bet.getObserver().getId().equals(user.getId()))) {
+                throw new ForbiddenException("Разрешать конфликт могут только создатель или наблюдатель");
+            }
+            
+            if ("creator".equals(winner)) {
+                bet.setWinner(bet.getCreator());
+            } else if ("participant".equals(winner)) {
+                bet.setWinner(bet.getParticipant());
+            } else if ("draw".equals(winner)) {
+                bet.setWinner(null); // Ничья
+            } else {
+                throw new BadRequestException("Неверный победитель: " + winner);
+            }
+            
+            bet.setStatus(BetStatus.RESOLVED);
+            bet.setResolvedAt(LocalDateTime.now());
+            
+            Bet savedBet = betRepository.saveAndFlush(bet);
+            eventPublisher.publishEvent(BetChangedEvent.of(BetChangedEvent.Type.RESOLVED, savedBet, BetStatus.CONFLICT));
+            return toResponse(savedBet);
+        });
     }
     
-    public BetResponse resolveConflict(Long betId, String winner, String userEmail) {
-        Bet bet = betRepository.findById(betId)
-                .orElseThrow(() -> new RuntimeException("Пари не найдено"));
-        
-        if (bet.getStatus() != BetStatus.CONFLICT) {
-            throw new RuntimeException("Конфликт можно разрешить только в статусе CONFLICT");
-        }
-        
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
-        
-        // Проверяем, что пользователь является создателем или наблюдателем
-        if (!bet.getCreator().getId().equals(user.getId()) && 
-            (bet.getObserver() == null || !bet.getObserver().getId().equals(user.getId()))) {
-            throw new RuntimeException("Разрешать конфликт могут только создатель или наблюдатель");
-        }
-        
-        if ("creator".equals(winner)) {
-            bet.setWinner(bet.getCreator());
-        } else if ("participant".equals(winner)) {
-            bet.setWinner(bet.getParticipant());
-        } else if ("draw".equals(winner)) {
-            bet.setWinner(null); // Ничья
-        } else {
-            throw new RuntimeException("Неверный победитель: " + winner);
+    public BetResponse finishBet(Long betId, AuthenticatedUser user) {
+        int finished = betRepository.finishIfAllowed(betId, user.getId(), FINISHABLE_STATUSES,
+                BetStatus.FINISHED, LocalDateTime.now());
+        if (finished == 0) {
+            Bet bet = betRepository.findById(betId)
+                    .orElseThrow(() -> new NotFoundException("Пари не найдено"));
+            if (!FINISHABLE_STATUSES.contains(bet.getStatus())) {
+                throw new InvalidStateException("Завершить можно только открытое или активное пари");
+            }
+            // Проверяем, что пользователь является создателем
+            if (!bet.getCreator().getId().equals(user.getId())) {
+                throw new ForbiddenException("Завершить пари может только создатель");
+            }
+            throw new ConflictException("Пари изменено другим запросом, повторите попытку");
         }
         
-        bet.setStatus(BetStatus.RESOLVED);
-        bet.setResolvedAt(LocalDateTime.now());
-        
-        Bet savedBet = betRepository.save(bet);
-        return BetResponse.fromBet(savedBet);
+        Bet savedBet = betRepository.findDetailedById(betId)
+                .orElseThrow(() -> new NotFoundException("Пари не найдено"));
+        // Из двух допустимых исходных статусов голосования возможны только в IN_PROGRESS
+        BetStatus previousStatus = savedBet.getParticipant() != null && savedBet.getObserver() != null
+                ? BetStatus.IN_PROGRESS
+                : BetStatus.OPEN;
+        eventPublisher.publishEvent(BetChangedEvent.of(BetChangedEvent.Type.FINISHED, savedBet, previousStatus));
+        return toResponse(savedBet);
     }
     
-    public BetResponse finishBet(Long betId, String userEmail) {
-        Bet bet = betRepository.findById(betId)
-                .orElseThrow(() -> new RuntimeException("Пари не найдено"));
-        
-        if (bet.getStatus() != BetStatus.OPEN && bet.getStatus() != BetStatus.IN_PROGRESS) {
-            throw new RuntimeException("Завершить можно только открытое или активное пари");
-        }
-        
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
-        
-        // Проверяем, что пользователь является создателем
-        if (!bet.getCreator().getId().equals(user.getId())) {
-            throw new RuntimeException("Завершить пари может только создатель");
-        }
-        
-        bet.setStatus(BetStatus.FINISHED);
-        
-        Bet savedBet = betRepository.save(bet);
-        return BetResponse.fromBet(savedBet);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deleteBet(Long betId, AuthenticatedUser user) {
+        optimisticRetry.run(() -> {
+            Bet bet = betRepository.findById(betId)
+                    .orElseThrow(() -> new NotFoundException("Пари не найдено"));
+            
+            if (!bet.getCreator().getId().equals(user.getId())) {
+                throw new ForbiddenException("Удалить пари может только создатель");
+            }
+            
+            // Комментарии удаляются вместе с пари одним запросом
+            commentRepository.deleteByBetId(betId);
+            betRepository.delete(bet);
+            betRepository.flush();
+            eventPublisher.publishEvent(BetChangedEvent.of(BetChangedEvent.Type.DELETED, bet, bet.getStatus()));
+        });
     }
     
-    public void deleteBet(Long betId, String userEmail) {
-        Bet bet = betRepository.findById(betId)
-                .orElseThrow(() -> new RuntimeException("Пари не найдено"));
-        
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
-        
-        if (!bet.getCreator().getId().equals(user.getId())) {
-            throw new RuntimeException("Удалить пари может только создатель");
-        }
-        
-        betRepository.delete(bet);
+    private BetResponse toResponse(Bet bet) {
+        return BetResponse.fromBet(bet, loadVotes(List.of(bet)).getOrDefault(bet.getId(), Map.of()));
     }
     
-    public void updateExpiredBets() {
-        LocalDateTime now = LocalDateTime.now();
-        // Используем существующий метод для поиска пари с истекшей датой
-        betRepository.findByStatusAndStartDateBefore(BetStatus.OPEN, now).forEach(bet -> {
-            bet.setStatus(BetStatus.IMPLEMENTED);
-            betRepository.save(bet);
-        });
+    // Один запрос за голосами всех пари страницы вместо обхода коллекции у каждой сущности
+    private Map<Long, Map<String, VoteResult>> loadVotes(Collection<Bet> bets) {
+        if (bets.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = bets.stream().map(Bet::getId).toList();
+        Map<Long, Map<String, VoteResult>> votes = new HashMap<>();
+        for (Object[] row : betRepository.findVotesByBetIds(ids)) {
+            votes.computeIfAbsent((Long) row[0], id -> new HashMap<>())
+                    .put((String) row[1], (VoteResult) row[2]);
+        }
+        return votes;
     }
 } 
\ No newline at end of file
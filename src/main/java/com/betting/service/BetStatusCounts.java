@@ -0,0 +1,257 @@
+package com.betting.service;
+
+import com.betting.dto.response.BetStatsResponse;
+import com.betting.entity.BetStatus;
+import com.betting.entity.BetStatusCount;
+import com.betting.repository.BetRepository;
+import com.betting.repository.BetStatusCountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Число пари по статусам без {@code COUNT(*)} по таблице bets.
+ * <p>
+ * Каждое {@link BetChangedEvent} превращается в приращения счётчиков; приращения транзакции
+ * суммируются и записываются в bet_status_counts перед её коммитом, то есть вместе с самим
+ * переходом статуса (порция истёкших пари — один UPDATE на статус, а не на пари).
+ * Ответ {@code GET /bets/stats} отдаётся из снимка в памяти: после коммита в него добавляются
+ * локальные приращения, а раз в {@code bets.stats.refresh} он перечитывается из таблицы,
+ * чтобы учесть изменения других инстансов.
+ * <p>
+ * Раз в {@code bets.stats.reconcile-interval} один инстанс (аренда {@value #LEASE_NAME}) сверяет
+ * таблицу с фактическими количествами и исправляет расхождение; его величина — метрика
+ * {@code bets.stats.drift}.
+ */
+@Slf4j
+@Component
+public class BetStatusCounts {
+
+    static final String LEASE_NAME = "bet-status-reconcile";
+
+    private static final BetStatus[] STATUSES = BetStatus.values();
+
+    private final BetRepository betRepository;
+    private final BetStatusCountRepository countRepository;
+    private final SchedulerLeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final Duration leaseDuration;
+
+    private final AtomicLongArray snapshot = new AtomicLongArray(STATUSES.length);
+    private final AtomicLongArray drift = new AtomicLongArray(STATUSES.length);
+    private final Counter correctionsCounter;
+    private volatile LocalDateTime refreshedAt;
+
+    public BetStatusCounts(BetRepository betRepository,
+                           BetStatusCountRepository countRepository,
+                           SchedulerLeaseService leaseService,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${bets.stats.lease-duration:5m}") Duration leaseDuration) {
+        this.betRepository = betRepository;
+        this.countRepository = countRepository;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Сверка читает bets и bet_status_counts в одном снимке, иначе расхождение будет мнимым
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.leaseDuration = leaseDuration;
+        for (BetStatus status : STATUSES) {
+            Gauge.builder("bets.stats.drift", drift, values -> values.get(status.ordinal()))
+                    .description("Расхождение счётчика со фактическим числом пари при последней сверке")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+        this.correctionsCounter = Counter.builder("bets.stats.corrections")
+                .description("Сверки, исправившие bet_status_counts")
+                .register(meterRegistry);
+    }
+
+    public BetStatsResponse getStats() {
+        Map<BetStatus, Long> counts = new EnumMap<>(BetStatus.class);
+        long total = 0;
+        for (BetStatus status : STATUSES) {
+            long count = Math.max(snapshot.get(status.ordinal()), 0);
+            counts.put(status, count);
+            total += count;
+        }
+        return BetStatsResponse.builder()
+                .counts(counts)
+                .total(total)
+                .refreshedAt(refreshedAt)
+                .build();
+    }
+
+    /**
+     * Слушатель без фазы: вызывается синхронно внутри транзакции, опубликовавшей событие.
+     */
+    @EventListener
+    public void onBetChanged(BetChangedEvent event) {
+        long[] deltas = new long[STATUSES.length];
+        if (event.getType() == BetChangedEvent.Type.CREATED) {
+            deltas[event.getStatus().ordinal()]++;
+        } else if (event.getType() == BetChangedEvent.Type.DELETED) {
+            deltas[event.getPreviousStatus().ordinal()]--;
+        } else if (event.isStatusChanged()) {
+            deltas[event.getPreviousStatus().ordinal()]--;
+            deltas[event.getStatus().ordinal()]++;
+        } else {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Событие вне транзакции: пишем сразу в своей
+            transactionTemplate.executeWithoutResult(status -> write(deltas));
+            addToSnapshot(deltas);
+            return;
+        }
+        long[] pending = (long[]) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new long[STATUSES.length];
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new PendingDeltas(pending));
+        }
+        for (int i = 0; i < deltas.length; i++) {
+            pending[i] += deltas[i];
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        // Недостающие строки создаются сразу с фактическим количеством
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<BetStatus, Long> actual = countActual();
+                for (BetStatus betStatus : STATUSES) {
+                    countRepository.insertIfAbsent(betStatus.name(), actual.getOrDefault(betStatus, 0L));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Строки bet_status_counts одновременно создал другой инстанс");
+        }
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${bets.stats.refresh:5000}", fixedDelayString = "${bets.stats.refresh:5000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<BetStatus, Long> stored = transactionTemplate.execute(status -> countStored());
+        for (BetStatus status : STATUSES) {
+            snapshot.set(status.ordinal(), stored.getOrDefault(status, 0L));
+        }
+        refreshedAt = now;
+    }
+
+    @Scheduled(initialDelayString = "${bets.stats.reconcile-interval:600000}",
+               fixedDelayString = "${bets.stats.reconcile-interval:600000}")
+    public void reconcile() {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            return;
+        }
+        try {
+            Boolean corrected = snapshotTransaction.execute(status -> {
+                Map<BetStatus, Long> actual = countActual();
+                Map<BetStatus, Long> stored = countStored();
+                boolean changed = false;
+                for (BetStatus betStatus : STATUSES) {
+                    long difference = actual.getOrDefault(betStatus, 0L) - stored.getOrDefault(betStatus, 0L);
+                    drift.set(betStatus.ordinal(), difference);
+                    if (difference != 0) {
+                        // Приращение, а не присваивание: не затирает переходы, закоммиченные после снимка
+                        countRepository.increment(betStatus, difference);
+                        changed = true;
+                    }
+                }
+                return changed;
+            });
+            if (Boolean.TRUE.equals(corrected)) {
+                correctionsCounter.increment();
+                log.warn("Счётчики статусов пари расходились с таблицей bets и исправлены");
+                refresh();
+            }
+        } catch (ConcurrencyFailureException e) {
+            // Строку счётчика изменили после снимка сверки — повторим в следующий раз
+            log.debug("Сверка счётчиков статусов отложена: {}", e.getMessage());
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    private Map<BetStatus, Long> countActual() {
+        Map<BetStatus, Long> counts = new EnumMap<>(BetStatus.class);
+        for (Object[] row : betRepository.countByStatus()) {
+            counts.put((BetStatus) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private Map<BetStatus, Long> countStored() {
+        Map<BetStatus, Long> counts = new EnumMap<>(BetStatus.class);
+        for (BetStatusCount row : countRepository.findAll()) {
+            counts.put(row.getStatus(), row.getCount());
+        }
+        return counts;
+    }
+
+    private void write(long[] deltas) {
+        for (BetStatus status : STATUSES) {
+            long delta = deltas[status.ordinal()];
+            if (delta != 0) {
+                countRepository.increment(status, delta);
+            }
+        }
+    }
+
+    private void addToSnapshot(long[] deltas) {
+        for (int i = 0; i < deltas.length; i++) {
+            if (deltas[i] != 0) {
+                snapshot.addAndGet(i, deltas[i]);
+            }
+        }
+    }
+
+    // Приращения одной транзакции: в БД перед коммитом, в снимок — после
+    private class PendingDeltas implements TransactionSynchronization {
+
+        private final long[] deltas;
+
+        PendingDeltas(long[] deltas) {
+            this.deltas = deltas;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write(deltas);
+        }
+
+        @Override
+        public void afterCommit() {
+            addToSnapshot(deltas);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BetStatusCounts.this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.betting.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Новый комментарий к пари, обрабатывается слушателями после коммита.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CommentAddedEvent {
+
+    private final Long betId;
+    private final CommentEntry comment;
+}
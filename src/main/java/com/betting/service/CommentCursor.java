@@ -0,0 +1,44 @@
+package com.betting.service;
+
+import com.betting.exception.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор ленты комментариев: позиция последнего выданного комментария
+ * по ключу сортировки {@code (createdAt, id)}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CommentCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public static CommentCursor of(CommentEntry comment) {
+        return new CommentCursor(comment.createdAt(), comment.id());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CommentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new BadRequestException("Неверный курсор");
+            }
+            return new CommentCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Неверный курсор");
+        }
+    }
+}
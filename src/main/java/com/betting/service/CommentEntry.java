@@ -0,0 +1,20 @@
+package com.betting.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Комментарий без автора: автор подставляется при формировании ответа, чтобы
+ * кэшированные комментарии не хранили копию профиля пользователя.
+ */
+public record CommentEntry(Long id, String text, Long authorId, LocalDateTime createdAt) {
+
+    static CommentEntry fromRow(Object[] row) {
+        return new CommentEntry((Long) row[0], (String) row[1], (Long) row[2], (LocalDateTime) row[3]);
+    }
+
+    // Порядок ленты: новые сверху, при равном времени — больший id
+    boolean isNewerThan(CommentEntry other) {
+        int byTime = createdAt.compareTo(other.createdAt);
+        return byTime != 0 ? byTime > 0 : id > other.id;
+    }
+}
@@ -0,0 +1,147 @@
+package com.betting.service;
+
+import com.betting.dto.response.CommentResponse;
+import com.betting.dto.response.CursorPageResponse;
+import com.betting.dto.response.UserResponse;
+import com.betting.entity.Comment;
+import com.betting.entity.User;
+import com.betting.exception.NotFoundException;
+import com.betting.repository.BetRepository;
+import com.betting.repository.CommentRepository;
+import com.betting.repository.UserRepository;
+import com.betting.security.AuthenticatedUser;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class CommentService {
+    
+    private static final int MAX_PAGE_LIMIT = 100;
+    
+    private final CommentRepository commentRepository;
+    private final BetRepository betRepository;
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final CommentTailCache tailCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnly;
+    
+    public CommentService(CommentRepository commentRepository,
+                          BetRepository betRepository,
+                          UserRepository userRepository,
+                          UserCache userCache,
+                          CommentTailCache tailCache,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager) {
+        this.commentRepository = commentRepository;
+        this.betRepository = betRepository;
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.tailCache = tailCache;
+        this.eventPublisher = eventPublisher;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+    
+    /**
+     * Лента комментариев, новые сверху. Первая страница в пределах размера буфера
+     * отдаётся из {@link CommentTailCache} без транзакции и соединения с БД (существование
+     * пари кэш проверяет при загрузке буфера), остальные — keyset-запросом в read-only транзакции.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CursorPageResponse<CommentResponse> getComments(Long betId, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        
+        CommentPage page = null;
+        if (after == null || after.isEmpty()) {
+            CommentTail.Snapshot tail = tailCache.get(betId);
+            List<CommentEntry> entries = tail.entries();
+            if (pageSize <= entries.size() || !tail.hasOlder()) {
+                page = new CommentPage(entries.size() > pageSize ? entries.subList(0, pageSize) : entries,
+                        entries.size() > pageSize || tail.hasOlder());
+            }
+        }
+        if (page == null) {
+            page = readOnly.execute(status -> loadPage(betId, after, pageSize));
+        }
+        
+        return toResponse(page);
+    }
+    
+    private CommentPage loadPage(Long betId, String after, int pageSize) {
+        // Берём на одну запись больше, чтобы узнать о наличии следующей страницы без COUNT
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Object[]> rows;
+        if (after == null || after.isEmpty()) {
+            rows = commentRepository.findLatest(betId, fetchLimit);
+        } else {
+            CommentCursor cursor = CommentCursor.decode(after);
+            rows = commentRepository.findBefore(betId, cursor.getCreatedAt(), cursor.getId(), fetchLimit);
+        }
+        if (rows.isEmpty() && !betRepository.existsById(betId)) {
+            throw new NotFoundException("Пари не найдено");
+        }
+        return new CommentPage(rows.stream().limit(pageSize).map(CommentEntry::fromRow).toList(),
+                rows.size() > pageSize);
+    }
+    
+    private CursorPageResponse<CommentResponse> toResponse(CommentPage commentPage) {
+        List<CommentEntry> page = commentPage.entries();
+        boolean hasNext = commentPage.hasNext();
+        String nextCursor = hasNext ? CommentCursor.of(page.get(page.size() - 1)).encode() : null;
+        
+        // Авторы страницы одной пачкой: из кэша пользователей, недостающие — одним запросом
+        Set<Long> authorIds = page.stream().map(CommentEntry::authorId).collect(Collectors.toSet());
+        Map<Long, User> authors = userCache.findAllById(authorIds);
+        return CursorPageResponse.<CommentResponse>builder()
+                .content(page.stream()
+                        .map(comment -> toResponse(comment, authors.get(comment.authorId())))
+                        .toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(page.size())
+                .build();
+    }
+    
+    public CommentResponse addComment(Long betId, String text, AuthenticatedUser user) {
+        if (!betRepository.existsById(betId)) {
+            throw new NotFoundException("Пари не найдено");
+        }
+        
+        User author = userCache.findById(user.getId())
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        
+        Comment comment = new Comment();
+        comment.setBet(betRepository.getReferenceById(betId));
+        comment.setAuthor(userRepository.getReferenceById(user.getId()));
+        comment.setText(text);
+        Comment saved = commentRepository.save(comment);
+        
+        CommentEntry entry = new CommentEntry(saved.getId(), saved.getText(), user.getId(), saved.getCreatedAt());
+        eventPublisher.publishEvent(new CommentAddedEvent(betId, entry));
+        return toResponse(entry, author);
+    }
+    
+    private record CommentPage(List<CommentEntry> entries, boolean hasNext) {
+    }
+    
+    static CommentResponse toResponse(CommentEntry comment, User author) {
+        return CommentResponse.builder()
+                .id(comment.id())
+                .text(comment.text())
+                .author(author != null ? UserResponse.fromUser(author) : null)
+                .createdAt(comment.createdAt())
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.betting.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Кольцевой буфер последних комментариев одного пари. Новый комментарий
+ * вытесняет самый старый; порядок в буфере — порядок ленты.
+ * Блокировка — {@link ReentrantLock}, а не монитор: ожидающий её виртуальный поток
+ * освобождает поток-носитель.
+ */
+class CommentTail {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CommentEntry[] ring;
+    private int head = 0; // позиция самого нового
+    private int count = 0;
+    // В БД есть комментарии старше самого старого в буфере
+    private boolean hasOlder;
+
+    /**
+     * @param newestFirst комментарии в порядке ленты, не больше ёмкости буфера
+     */
+    CommentTail(int capacity, List<CommentEntry> newestFirst, boolean hasOlder) {
+        this.ring = new CommentEntry[capacity];
+        this.hasOlder = hasOlder;
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            push(newestFirst.get(i));
+        }
+    }
+
+    /**
+     * Добавляет комментарий в голову. Возвращает false, если комментарий старше головы
+     * и не совпадает ни с одним из буфера: вставка в середину кольца не поддерживается,
+     * такой буфер нужно перечитать.
+     */
+    boolean append(CommentEntry comment) {
+        lock.lock();
+        try {
+            if (count > 0 && !comment.isNewerThan(ring[head])) {
+                return contains(comment.id());
+            }
+            push(comment);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Snapshot snapshot() {
+        lock.lock();
+        try {
+            List<CommentEntry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(ring[Math.floorMod(head - i, ring.length)]);
+            }
+            return new Snapshot(entries, hasOlder);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void push(CommentEntry comment) {
+        head = (head + 1) % ring.length;
+        if (count == ring.length) {
+            hasOlder = true;
+        } else {
+            count++;
+        }
+        ring[head] = comment;
+    }
+
+    private boolean contains(Long id) {
+        for (int i = 0; i < count; i++) {
+            if (ring[Math.floorMod(head - i, ring.length)].id().equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    record Snapshot(List<CommentEntry> entries, boolean hasOlder) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.betting.service;
+
+import com.betting.exception.NotFoundException;
+import com.betting.repository.BetRepository;
+import com.betting.repository.CommentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Последние {@code bets.comments.tail-size} комментариев каждого недавно открытого пари.
+ * Первая страница комментариев — самый частый запрос карточки пари — отдаётся отсюда без БД.
+ * Буферы пополняются после коммита нового комментария; число пари в кэше ограничено.
+ * Комментарии, добавленные через другие инстансы, сюда не попадают, поэтому буфер живёт
+ * не дольше {@code bets.comments.tail-ttl} с момента загрузки из БД.
+ * Существование пари проверяется при загрузке буфера: буфер есть только у существующего пари,
+ * поэтому попадание не обращается к БД, а для несуществующего id буфер не создаётся.
+ */
+@Component
+public class CommentTailCache {
+
+    private static final int STRIPES = 64;
+
+    private final CommentRepository commentRepository;
+    private final BetRepository betRepository;
+    private final int tailSize;
+    private final Cache<Long, CommentTail> tails;
+    // Счётчики изменений по полосам id пари: загрузка из БД не кладёт в кэш буфер,
+    // если за время чтения к пари добавился комментарий или пари удалили
+    private final AtomicLongArray changeStamps = new AtomicLongArray(STRIPES);
+
+    public CommentTailCache(CommentRepository commentRepository,
+                            BetRepository betRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${bets.comments.tail-size:20}") int tailSize,
+                            @Value("${bets.comments.cached-bets:10000}") long cachedBets,
+                            @Value("${bets.comments.tail-ttl:30s}") Duration tailTtl) {
+        this.commentRepository = commentRepository;
+        this.betRepository = betRepository;
+        this.tailSize = tailSize;
+        this.tails = Caffeine.newBuilder()
+                .maximumSize(cachedBets)
+                .expireAfter(fromLoad(tailTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tails, "comments.tail");
+    }
+
+    public int getTailSize() {
+        return tailSize;
+    }
+
+    /**
+     * Последние комментарии пари.
+     *
+     * @throws NotFoundException если пари нет
+     */
+    public CommentTail.Snapshot get(Long betId) {
+        CommentTail cached = tails.getIfPresent(betId);
+        if (cached != null) {
+            return cached.snapshot();
+        }
+
+        int stripe = stripe(betId);
+        long stamp = changeStamps.get(stripe);
+        List<Object[]> rows = commentRepository.findLatest(betId, Limit.of(tailSize + 1));
+        // Комментарии без пари не существуют, проверять нужно только пустой результат
+        if (rows.isEmpty() && !betRepository.existsById(betId)) {
+            throw new NotFoundException("Пари не найдено");
+        }
+        boolean hasOlder = rows.size() > tailSize;
+        List<CommentEntry> entries = rows.stream()
+                .limit(tailSize)
+                .map(CommentEntry::fromRow)
+                .toList();
+        CommentTail loaded = new CommentTail(tailSize, entries, hasOlder);
+
+        CommentTail installed = tails.asMap().compute(betId, (id, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            return changeStamps.get(stripe) == stamp ? loaded : null;
+        });
+        return (installed != null ? installed : loaded).snapshot();
+    }
+
+    public void evict(Long betId) {
+        tails.invalidate(betId);
+    }
+
+    @TransactionalEventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        changeStamps.incrementAndGet(stripe(event.getBetId()));
+        tails.asMap().computeIfPresent(event.getBetId(),
+                (id, tail) -> tail.append(event.getComment()) ? tail : null);
+    }
+
+    @TransactionalEventListener
+    public void onBetChanged(BetChangedEvent event) {
+        if (event.getType() == BetChangedEvent.Type.DELETED) {
+            changeStamps.incrementAndGet(stripe(event.getBetId()));
+            evict(event.getBetId());
+        }
+    }
+
+    // Срок отсчитывается от загрузки: локальные добавления не продлевают жизнь буфера
+    private static Expiry<Long, CommentTail> fromLoad(Duration ttl) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Long betId, CommentTail tail, long currentTime) {
+                return ttl.toNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(Long betId, CommentTail tail, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+
+            @Override
+            public long expireAfterRead(Long betId, CommentTail tail, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private static int stripe(Long betId) {
+        return (int) (betId & (STRIPES - 1));
+    }
+}
@@ -1,22 +1,39 @@
 package com.betting.service;
 
+import com.betting.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
     
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+    
     @Value("${jwt.secret}")
     private String secret;
     
@@ -26,6 +43,54 @@ public class JwtService {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
     
+    @Value("${jwt.verification-cache.max-size:10000}")
+    private long verificationCacheMaxSize;
+    
+    @Value("${jwt.verification-cache.ttl:300000}")
+    private long verificationCacheTtl;
+    
+    private Key signInKey;
+    private JwtParser parser;
+    
+    // Кэш уже проверенных токенов: ключ — SHA-256 токена, запись живёт не дольше срока действия токена
+    private Cache<String, VerifiedToken> verifiedTokens;
+    
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verificationCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        long ttl = Math.min(token.remainingMillis(), verificationCacheTtl);
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(ttl, 0));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+    
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        return generateToken(claims, user);
+    }
+    
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
@@ -44,10 +109,40 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
+    /**
+     * Разбирает и проверяет токен один раз. Повторные запросы с тем же токеном
+     * обслуживаются из кэша без повторной проверки подписи.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.invalidate(key);
+            return Optional.empty();
+        }
+        
+        VerifiedToken verified;
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verified = new VerifiedToken(claims.getSubject(), claims.getIssuedAt(), claims.getExpiration(), claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        
+        if (verified.getSubject() == null || verified.isExpired()) {
+            return Optional.empty();
+        }
+        verifiedTokens.put(key, verified);
+        return Optional.of(verified);
+    }
+    
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -58,29 +153,25 @@ public class JwtService {
     }
     
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-    
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verify(token)
+                .map(verified -> verified.getSubject().equals(userDetails.getUsername()))
+                .orElse(false);
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return verify(token)
+                .map(VerifiedToken::getClaims)
+                .orElseGet(() -> parser.parseClaimsJws(token).getBody());
     }
     
-    private Key getSignInKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
     }
     
     public Long getExpiration() {
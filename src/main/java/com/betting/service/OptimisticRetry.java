@@ -0,0 +1,65 @@
+package com.betting.service;
+
+import com.betting.exception.ConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет действие в отдельной транзакции и повторяет его ограниченное число раз,
+ * если коммит проиграл гонку по версии сущности. Каждая попытка читает данные заново.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${bets.retry.max-attempts:3}") int maxAttempts,
+                           @Value("${bets.retry.backoff-ms:20}") long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ConflictException("Пари изменено другим запросом, повторите попытку");
+                }
+                log.debug("Конфликт версий, попытка {} из {}", attempt, maxAttempts);
+                pause(attempt);
+            }
+        }
+    }
+
+    public void run(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Экспоненциальная пауза со случайным разбросом, чтобы конкуренты не сталкивались снова
+    private void pause(int attempt) {
+        long bound = backoffMillis << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound / 2, bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Операция прервана");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.betting.service;
+
+import com.betting.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Очередь хеширования паролей заполнена: запрос отклоняется сразу, клиенту отвечают 503.
+ */
+public class PasswordHashingRejectedException extends ApiException {
+
+    public PasswordHashingRejectedException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "OVERLOADED", "Сервис входа перегружен, повторите попытку позже");
+    }
+}
@@ -0,0 +1,62 @@
+package com.betting.service;
+
+import com.betting.repository.SchedulerLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Аренда фоновых задач через строку в БД: в кластере из нескольких инстансов
+ * задачу с данным именем в каждый момент выполняет не больше одного.
+ * Аренда ограничена по времени, поэтому упавший владелец не блокирует задачу навсегда.
+ */
+@Slf4j
+@Service
+public class SchedulerLeaseService {
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    public SchedulerLeaseService(SchedulerLeaseRepository leaseRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.owner = hostName() + "-" + UUID.randomUUID();
+    }
+
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(duration);
+        try {
+            Boolean acquired = transactionTemplate.execute(status ->
+                    leaseRepository.takeOver(name, owner, now, until) == 1
+                            || leaseRepository.insertIfAbsent(name, owner, until) == 1);
+            return Boolean.TRUE.equals(acquired);
+        } catch (DataIntegrityViolationException e) {
+            // Строку аренды одновременно создал другой инстанс — он и выполняет задачу
+            log.debug("Аренда {} занята другим инстансом", name);
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(status ->
+                leaseRepository.release(name, owner, LocalDateTime.now()));
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
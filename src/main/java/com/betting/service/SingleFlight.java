@@ -0,0 +1,73 @@
+package com.betting.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Склеивание одинаковых одновременных чтений: первый запрос по ключу выполняет загрузку,
+ * остальные, пришедшие пока она идёт, ждут её и получают тот же результат (или ту же ошибку).
+ * Результат не кэшируется — после завершения следующий запрос загружает заново.
+ * {@link #forget} отвязывает ключ от текущей загрузки после изменения данных,
+ * чтобы новые запросы не получили результат, прочитанный до коммита.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter loads;
+    private final Counter collapsed;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.loads = Counter.builder("bets.singleflight.loads")
+                .description("Загрузки, выполненные первым запросом по ключу")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.collapsed = Counter.builder("bets.singleflight.collapsed")
+                .description("Запросы, дождавшиеся чужой загрузки вместо своей")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            collapsed.increment();
+            return await(existing);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.betting.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Иерархическое колесо таймеров: {@code levels} уровней по {@value #SLOTS} слотов.
+ * Слот нулевого уровня равен одному тику, слот уровня L — {@code SLOTS^L} тикам.
+ * Дальние сроки лежат на верхних уровнях и спускаются вниз, когда до них доходит очередь,
+ * поэтому постановка, отмена и продвижение на тик стоят O(1) независимо от числа таймеров.
+ * Отмена ленивая: актуальный срок хранится в {@link #deadlines}, устаревшие записи в слотах
+ * пропускаются при спуске и срабатывании. Класс не потокобезопасен сам по себе —
+ * все вызовы идут под блокировкой владельца.
+ */
+public class TimingWheel {
+
+    private static final int BITS = 6;
+    static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final List<List<Entry>> buckets;
+    // id -> тик срабатывания; единственный источник правды о сроке
+    private final Map<Long, Long> deadlines = new HashMap<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int levels, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.buckets = new ArrayList<>(levels * SLOTS);
+        for (int i = 0; i < levels * SLOTS; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    public void schedule(long id, long deadlineMillis) {
+        // Округляем вверх: таймер не срабатывает раньше срока; просроченный сработает на следующем тике
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Long previous = deadlines.put(id, tick);
+        if (previous == null || previous != tick) {
+            place(new Entry(id, tick));
+        }
+    }
+
+    public void cancel(long id) {
+        deadlines.remove(id);
+    }
+
+    public boolean contains(long id) {
+        return deadlines.containsKey(id);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Продвигает колесо до {@code nowMillis} и возвращает id, чей срок наступил.
+     */
+    public List<Long> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Long> due = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Сначала спускаем верхние уровни, чьи слоты начинаются на этом тике
+            for (int level = levels - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            List<Entry> bucket = bucket(0, currentTick);
+            for (Entry entry : bucket) {
+                if (isCurrent(entry)) {
+                    deadlines.remove(entry.id);
+                    due.add(entry.id);
+                }
+            }
+            bucket.clear();
+        }
+        return due;
+    }
+
+    private void cascade(int level) {
+        List<Entry> bucket = bucket(level, currentTick >> (BITS * level));
+        List<Entry> entries = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Entry entry : entries) {
+            if (isCurrent(entry)) {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry entry) {
+        if (entry.tick - currentTick < SLOTS) {
+            bucket(0, entry.tick).add(entry);
+            return;
+        }
+        for (int level = 1; level < levels; level++) {
+            int shift = BITS * level;
+            if ((entry.tick >> shift) - (currentTick >> shift) < SLOTS) {
+                bucket(level, entry.tick >> shift).add(entry);
+                return;
+            }
+        }
+        // Дальше горизонта колеса: кладём в последний слот верхнего уровня, оттуда запись спустится заново
+        int shift = BITS * (levels - 1);
+        bucket(levels - 1, (currentTick >> shift) + SLOTS - 1).add(entry);
+    }
+
+    private boolean isCurrent(Entry entry) {
+        Long tick = deadlines.get(entry.id);
+        return tick != null && tick == entry.tick;
+    }
+
+    private List<Entry> bucket(int level, long slot) {
+        return buckets.get(level * SLOTS + (int) (slot & MASK));
+    }
+
+    private record Entry(long id, long tick) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.betting.service;
+
+import com.betting.entity.User;
+import com.betting.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Кэш пользователей перед {@link UserRepository}. Записи живут не дольше
+ * {@code users.cache.max-staleness}: это верхняя граница устаревания, когда пользователь
+ * изменён на другом инстансе. Локальные изменения сбрасывают запись сразу.
+ * Возвращаемые сущности отсоединены и общие для всех потоков — изменять их нельзя,
+ * для записи пользователь загружается из репозитория.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+
+    // Пользователи по id; индекс по email хранит только id, чтобы у записи был один источник
+    private final Cache<Long, User> byId;
+    private final Cache<String, Long> idByEmail;
+
+    public UserCache(UserRepository userRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${users.cache.max-size:10000}") long maxSize,
+                     @Value("${users.cache.max-staleness:30s}") Duration maxStaleness) {
+        this.userRepository = userRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStaleness)
+                .recordStats()
+                .build();
+        this.idByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStaleness)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "users.byEmail");
+    }
+
+    public Optional<User> findById(Long id) {
+        User cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<User> loaded = userRepository.findById(id);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Пользователи по набору id: найденные в кэше отдаются сразу, остальные загружаются одним запросом.
+     */
+    public Map<Long, User> findAllById(Collection<Long> ids) {
+        Map<Long, User> found = new HashMap<>(byId.getAllPresent(ids));
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            for (User user : userRepository.findAllById(missing)) {
+                put(user);
+                found.put(user.getId(), user);
+            }
+        }
+        return found;
+    }
+
+    public Optional<User> findByEmail(String email) {
+        Long id = idByEmail.getIfPresent(email);
+        if (id != null) {
+            User cached = byId.getIfPresent(id);
+            if (cached != null && email.equals(cached.getEmail())) {
+                return Optional.of(cached);
+            }
+            idByEmail.invalidate(email);
+        }
+        Optional<User> loaded = userRepository.findByEmail(email);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public Optional<User> findActiveByEmail(String email) {
+        return findByEmail(email).filter(User::isActive);
+    }
+
+    public void evict(User user) {
+        evictNow(user);
+        // Повторный сброс после коммита: чтение между сбросом и коммитом могло закэшировать старую версию
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(user);
+                }
+            });
+        }
+    }
+
+    private void evictNow(User user) {
+        if (user.getId() != null) {
+            byId.invalidate(user.getId());
+        }
+        if (user.getEmail() != null) {
+            idByEmail.invalidate(user.getEmail());
+        }
+    }
+
+    private void put(User user) {
+        byId.put(user.getId(), user);
+        idByEmail.put(user.getEmail(), user.getId());
+    }
+}
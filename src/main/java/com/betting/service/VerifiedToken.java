@@ -0,0 +1,41 @@
+package com.betting.service;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Date;
+
+@Getter
+@RequiredArgsConstructor
+public class VerifiedToken {
+
+    private final String subject;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final Claims claims;
+
+    public Long getUserId() {
+        return claims.get(JwtService.CLAIM_USER_ID, Long.class);
+    }
+
+    public String getRole() {
+        return claims.get(JwtService.CLAIM_ROLE, String.class);
+    }
+
+    public Integer getTokenVersion() {
+        return claims.get(JwtService.CLAIM_TOKEN_VERSION, Integer.class);
+    }
+
+    public boolean hasIdentityClaims() {
+        return getUserId() != null && getRole() != null && getTokenVersion() != null;
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    public long remainingMillis() {
+        return expiration == null ? Long.MAX_VALUE : expiration.getTime() - System.currentTimeMillis();
+    }
+}
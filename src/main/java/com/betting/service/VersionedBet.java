@@ -0,0 +1,9 @@
+package com.betting.service;
+
+import com.betting.dto.response.BetResponse;
+
+/**
+ * Карточка пари вместе с версией строки, из которой она собрана.
+ */
+public record VersionedBet(Long version, BetResponse response) {
+}
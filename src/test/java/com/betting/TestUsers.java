@@ -0,0 +1,24 @@
+package com.betting;
+
+import com.betting.entity.User;
+import com.betting.repository.UserRepository;
+
+import java.util.UUID;
+
+/**
+ * Пользователи для тестов с контекстом: уникальный email, чтобы тесты не мешали друг другу в общей H2.
+ */
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    public static User create(UserRepository userRepository) {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,68 @@
+package com.betting.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Каждое сочетание параметров {@code GET /bets} попадает ровно в один обработчик:
+ * неоднозначное сопоставление Spring превратил бы в 500.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser
+class BetListParamsTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // Из общего контекста, чтобы не поднимать второй на той же H2
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void idsAloneLooksUpBets() throws Exception {
+        mockMvc.perform(get("/bets").param("ids", "-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].found").value(false));
+    }
+
+    @Test
+    void idsWithLimitOrFieldsIsBadRequest() throws Exception {
+        mockMvc.perform(get("/bets").param("ids", "1").param("limit", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+        mockMvc.perform(get("/bets").param("ids", "1").param("fields", "title"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/bets").param("ids", "1").param("limit", "10").param("fields", "title"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listModesWithoutIdsStillResolve() throws Exception {
+        mockMvc.perform(get("/bets").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").exists());
+        mockMvc.perform(get("/bets").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").exists());
+        mockMvc.perform(get("/bets").param("limit", "5").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").exists());
+    }
+}
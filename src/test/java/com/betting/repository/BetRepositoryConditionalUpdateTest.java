@@ -0,0 +1,134 @@
+package com.betting.repository;
+
+import com.betting.TestUsers;
+import com.betting.entity.Bet;
+import com.betting.entity.BetStatus;
+import com.betting.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Условные UPDATE пари: изменение проходит, только если строка всё ещё удовлетворяет условию,
+ * а результат (0 или 1) говорит вызывающему, чей запрос победил.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BetRepositoryConditionalUpdateTest {
+
+    private static final List<BetStatus> FINISHABLE = List.of(BetStatus.OPEN, BetStatus.IN_PROGRESS);
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User creator;
+    private User participant;
+    private User observer;
+    private Long betId;
+
+    @BeforeEach
+    void setUp() {
+        creator = TestUsers.create(userRepository);
+        participant = TestUsers.create(userRepository);
+        observer = TestUsers.create(userRepository);
+
+        Bet bet = new Bet();
+        bet.setTitle("Пари");
+        bet.setDescription("Описание");
+        bet.setStartDate(LocalDateTime.now().plusDays(1));
+        bet.setDuration(24);
+        bet.setStatus(BetStatus.OPEN);
+        bet.setCreator(creator);
+        betId = betRepository.saveAndFlush(bet).getId();
+    }
+
+    @Test
+    void roleIsTakenOnlyOnce() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(betRepository.joinAsParticipant(betId, participant, participant.getId(), BetStatus.OPEN, now)).isEqualTo(1);
+        assertThat(betRepository.joinAsParticipant(betId, observer, observer.getId(), BetStatus.OPEN, now)).isZero();
+        assertThat(betRepository.findById(betId).orElseThrow().getParticipant().getId()).isEqualTo(participant.getId());
+    }
+
+    @Test
+    void creatorCannotJoin() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(betRepository.joinAsParticipant(betId, creator, creator.getId(), BetStatus.OPEN, now)).isZero();
+        assertThat(betRepository.joinAsObserver(betId, creator, creator.getId(), BetStatus.OPEN, now)).isZero();
+    }
+
+    @Test
+    void startsOnlyWhenBothRolesTaken() {
+        LocalDateTime now = LocalDateTime.now();
+
+        betRepository.joinAsParticipant(betId, participant, participant.getId(), BetStatus.OPEN, now);
+        assertThat(betRepository.startIfComplete(betId, BetStatus.OPEN, BetStatus.IN_PROGRESS, now)).isZero();
+
+        betRepository.joinAsObserver(betId, observer, observer.getId(), BetStatus.OPEN, now);
+        assertThat(betRepository.startIfComplete(betId, BetStatus.OPEN, BetStatus.IN_PROGRESS, now)).isEqualTo(1);
+        assertThat(betRepository.startIfComplete(betId, BetStatus.OPEN, BetStatus.IN_PROGRESS, now)).isZero();
+
+        Bet bet = betRepository.findById(betId).orElseThrow();
+        assertThat(bet.getStatus()).isEqualTo(BetStatus.IN_PROGRESS);
+        // Каждое изменение увеличивает версию, чтобы сущности с @Version увидели конфликт
+        assertThat(bet.getVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void cannotJoinStartedBet() {
+        LocalDateTime now = LocalDateTime.now();
+        betRepository.finishIfAllowed(betId, creator.getId(), FINISHABLE, BetStatus.FINISHED, now);
+
+        assertThat(betRepository.joinAsObserver(betId, observer, observer.getId(), BetStatus.OPEN, now)).isZero();
+    }
+
+    @Test
+    void onlyCreatorFinishesOnce() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(betRepository.finishIfAllowed(betId, participant.getId(), FINISHABLE, BetStatus.FINISHED, now)).isZero();
+        assertThat(betRepository.finishIfAllowed(betId, creator.getId(), FINISHABLE, BetStatus.FINISHED, now)).isEqualTo(1);
+        assertThat(betRepository.finishIfAllowed(betId, creator.getId(), FINISHABLE, BetStatus.FINISHED, now)).isZero();
+        assertThat(betRepository.findById(betId).orElseThrow().getStatus()).isEqualTo(BetStatus.FINISHED);
+    }
+
+    @Test
+    void voteDeltaMovesToConflictWhenVotesDiffer() {
+        LocalDateTime now = LocalDateTime.now();
+        startBet(now);
+        List<BetStatus> votable = List.of(BetStatus.IN_PROGRESS);
+
+        assertThat(betRepository.applyVoteDelta(betId, 1, 0, votable, BetStatus.CONFLICT, now)).isEqualTo(1);
+        assertThat(betRepository.findById(betId).orElseThrow().getStatus()).isEqualTo(BetStatus.IN_PROGRESS);
+
+        assertThat(betRepository.applyVoteDelta(betId, 0, 1, votable, BetStatus.CONFLICT, now)).isEqualTo(1);
+        VoteTally tally = betRepository.findVoteTally(betId).orElseThrow();
+        assertThat(tally.getForVotes()).isEqualTo(1);
+        assertThat(tally.getAgainstVotes()).isEqualTo(1);
+        assertThat(betRepository.findById(betId).orElseThrow().getStatus()).isEqualTo(BetStatus.CONFLICT);
+
+        // Пари уже не в исходном статусе: счётчики не меняются
+        assertThat(betRepository.applyVoteDelta(betId, 1, 0, votable, BetStatus.CONFLICT, now)).isZero();
+        assertThat(betRepository.findVoteTally(betId).orElseThrow().getForVotes()).isEqualTo(1);
+    }
+
+    private void startBet(LocalDateTime now) {
+        betRepository.joinAsParticipant(betId, participant, participant.getId(), BetStatus.OPEN, now);
+        betRepository.joinAsObserver(betId, observer, observer.getId(), BetStatus.OPEN, now);
+        betRepository.startIfComplete(betId, BetStatus.OPEN, BetStatus.IN_PROGRESS, now);
+    }
+}
@@ -0,0 +1,92 @@
+package com.betting.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static RateLimiter limiter(int perMinute, int burst, boolean enabled) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("rate-limit.login-email.per-minute", String.valueOf(perMinute))
+                .withProperty("rate-limit.login-email.burst", String.valueOf(burst));
+        return new RateLimiter(environment, new SimpleMeterRegistry(), enabled);
+    }
+
+    @Test
+    void allowsBurstThenRejects() {
+        RateLimiter limiter = limiter(1, 3, true);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com")).isZero();
+        }
+        long wait = limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com");
+
+        // Следующий запрос станет возможен примерно через интервал между запросами (минута)
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MINUTES.toNanos(1));
+    }
+
+    @Test
+    void keysAreIndependent() {
+        RateLimiter limiter = limiter(1, 1, true);
+
+        assertThat(limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com")).isZero();
+        assertThat(limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com")).isPositive();
+        assertThat(limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "b@example.com")).isZero();
+    }
+
+    @Test
+    void rejectedRequestDoesNotConsumeQuota() {
+        RateLimiter limiter = limiter(1, 1, true);
+
+        limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com");
+        long first = limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com");
+        long second = limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com");
+
+        // Отказ не сдвигает график: ожидание только уменьшается со временем
+        assertThat(second).isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void recoversAfterInterval() throws InterruptedException {
+        // 6000 в минуту — интервал 10 мс
+        RateLimiter limiter = limiter(6000, 1, true);
+
+        assertThat(limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com")).isZero();
+        long wait = limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com");
+        assertThat(wait).isPositive();
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com")).isZero();
+    }
+
+    @Test
+    void evictionKeepsActiveLimits() {
+        RateLimiter limiter = limiter(1, 1, true);
+
+        limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com");
+        limiter.evictIdle();
+
+        assertThat(limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com")).isPositive();
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        RateLimiter limiter = limiter(1, 1, false);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire(RateLimiter.Rule.LOGIN_EMAIL, "a@example.com")).isZero();
+        }
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertThat(RateLimiter.toRetryAfterSeconds(1)).isEqualTo(1);
+        assertThat(RateLimiter.toRetryAfterSeconds(TimeUnit.SECONDS.toNanos(1))).isEqualTo(1);
+        assertThat(RateLimiter.toRetryAfterSeconds(TimeUnit.SECONDS.toNanos(1) + 1)).isEqualTo(2);
+    }
+}
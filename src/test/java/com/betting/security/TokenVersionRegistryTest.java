@@ -0,0 +1,112 @@
+package com.betting.security;
+
+import com.betting.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenVersionRegistryTest {
+
+    private static final Long USER = 1L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenVersionRegistry registry = new TokenVersionRegistry(userRepository);
+
+    @Test
+    void reloadPicksUpRevocationsFromOtherInstances() {
+        when(userRepository.findRevocationState())
+                .thenReturn(rows(new Object[]{USER, 2, true}, new Object[]{2L, 0, false}));
+
+        registry.reload();
+
+        assertThat(registry.isCurrent(USER, 1)).isFalse();
+        assertThat(registry.isCurrent(USER, 2)).isTrue();
+        assertThat(registry.isCurrent(2L, 5)).isFalse();
+        assertThat(registry.isCurrent(3L, 0)).isTrue();
+    }
+
+    // Выборка началась до выхода пользователя и его не видит: выход не должен потеряться при подмене таблицы
+    @Test
+    void logoutCommittedDuringReloadIsKept() {
+        when(userRepository.findRevocationState()).thenAnswer(invocation -> {
+            registry.update(USER, 3, true);
+            return rows();
+        });
+
+        registry.reload();
+
+        assertThat(registry.isCurrent(USER, 2)).isFalse();
+        assertThat(registry.isCurrent(USER, 3)).isTrue();
+    }
+
+    @Test
+    void deactivationCommittedDuringReloadIsKept() {
+        when(userRepository.findRevocationState()).thenAnswer(invocation -> {
+            registry.update(USER, 0, false);
+            return rows();
+        });
+
+        registry.reload();
+
+        assertThat(registry.isCurrent(USER, 0)).isFalse();
+        assertThat(registry.isCurrent(USER, Integer.MAX_VALUE - 1)).isFalse();
+    }
+
+    // Обратный случай: выборка ещё видит блокировку, снятую во время её выполнения
+    @Test
+    void reactivationCommittedDuringReloadIsKept() {
+        registry.update(USER, 0, false);
+        when(userRepository.findRevocationState()).thenAnswer(invocation -> {
+            registry.update(USER, 0, true);
+            return rows(new Object[]{USER, 0, false});
+        });
+
+        registry.reload();
+
+        assertThat(registry.isCurrent(USER, 0)).isTrue();
+    }
+
+    // Изменение, которое выборка уже видела, больше не перекрывает БД: иначе оно держалось бы вечно
+    @Test
+    void updateCoveredByReloadYieldsToLaterDatabaseState() {
+        registry.update(USER, 0, false);
+        when(userRepository.findRevocationState())
+                .thenReturn(rows(new Object[]{USER, 0, false}))
+                .thenReturn(rows());
+
+        registry.reload();
+        assertThat(registry.isCurrent(USER, 0)).isFalse();
+
+        // Другой инстанс разблокировал пользователя
+        registry.reload();
+        assertThat(registry.isCurrent(USER, 0)).isTrue();
+    }
+
+    @Test
+    void updateInTransactionAppliesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> synchronizations;
+        try {
+            registry.update(USER, 0, false);
+            assertThat(registry.isCurrent(USER, 0)).isTrue();
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(registry.isCurrent(USER, 0)).isFalse();
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,49 @@
+package com.betting.service;
+
+import com.betting.entity.BetStatus;
+import com.betting.repository.BetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BetDeadlineSchedulerTest {
+
+    private static final long TICK = 1;
+    private static final long RETRY_DELAY = 5;
+
+    private final BetRepository betRepository = mock(BetRepository.class);
+    private final BetDeadlineScheduler scheduler = new BetDeadlineScheduler(betRepository,
+            mock(ApplicationEventPublisher.class), mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(), TICK, 500, RETRY_DELAY);
+
+    @Test
+    void failedChunkIsScheduledAgain() throws InterruptedException {
+        scheduler.onBetChanged(new BetChangedEvent(BetChangedEvent.Type.JOINED, 1L, "Пари", null,
+                LocalDateTime.now().minusHours(2), 1, BetStatus.OPEN, BetStatus.IN_PROGRESS));
+        when(betRepository.findIndexFieldsByIdInAndStatus(anyCollection(), any()))
+                .thenThrow(new DataAccessResourceFailureException("БД недоступна"));
+
+        Thread.sleep(3 * TICK);
+        scheduler.fire();
+
+        assertThat(scheduler.pending()).isEqualTo(1);
+
+        doReturn(List.of()).when(betRepository).findIndexFieldsByIdInAndStatus(anyCollection(), any());
+        Thread.sleep(RETRY_DELAY + 3 * TICK);
+        scheduler.fire();
+
+        assertThat(scheduler.pending()).isZero();
+    }
+}
@@ -0,0 +1,119 @@
+package com.betting.service;
+
+import com.betting.dto.response.BetResponse;
+import com.betting.entity.BetStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BetDetailCacheTest {
+
+    private static final int CLIENTS = 8;
+
+    private final BetService betService = mock(BetService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BetDetailCache cache = new BetDetailCache(betService, new ObjectMapper(), meterRegistry,
+            100, Duration.ofMinutes(1));
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        when(betService.getVersionedBet(1L)).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return bet(1L, "Футбол");
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<BetDetailCache.Entry>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(1L)));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < CLIENTS; i++) {
+                results.add(executor.submit(() -> cache.get(1L)));
+            }
+            waitForCollapsed(CLIENTS - 1);
+            release.countDown();
+
+            for (Future<BetDetailCache.Entry> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).etag()).isEqualTo(results.get(0).get().etag());
+            }
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get(1L)).isSameAs(cache.get(1L));
+        assertThat(loads).hasValue(1);
+    }
+
+    // Сброс не ждёт идущую загрузку, а её результат, прочитанный до коммита, в кэш не попадает
+    @Test
+    void invalidationDuringLoadDropsStaleEntry() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(betService.getVersionedBet(1L))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    await(release);
+                    return bet(1L, "До коммита");
+                })
+                .thenReturn(bet(1L, "После коммита"));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<BetDetailCache.Entry> stale = executor.submit(() -> cache.get(1L));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> invalidation = executor.submit(() -> cache.onBetChanged(changed(1L)));
+            invalidation.get(5, TimeUnit.SECONDS);
+            release.countDown();
+            assertThat(json(stale.get(5, TimeUnit.SECONDS))).contains("До коммита");
+        }
+
+        assertThat(json(cache.get(1L))).contains("После коммита");
+        assertThat(json(cache.get(1L))).contains("После коммита");
+    }
+
+    private void waitForCollapsed(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("bets.singleflight.collapsed", "name", "detail").count() < expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static VersionedBet bet(Long id, String title) {
+        return new VersionedBet(1L, BetResponse.builder().id(id).title(title).status(BetStatus.OPEN).build());
+    }
+
+    private static BetChangedEvent changed(Long id) {
+        return new BetChangedEvent(BetChangedEvent.Type.JOINED, id, "После коммита", null, null, 1,
+                BetStatus.OPEN, BetStatus.IN_PROGRESS);
+    }
+
+    private static String json(BetDetailCache.Entry entry) {
+        return new String(entry.json(), StandardCharsets.UTF_8);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.betting.service;
+
+import com.betting.repository.BetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BetEventHubTest {
+
+    private static final int CHURNERS = 8;
+    private static final long CHURN_MILLIS = 1000;
+
+    private final BetRepository betRepository = mock(BetRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BetEventHub hub = new BetEventHub(betRepository, mock(BetService.class), mock(UserCache.class),
+            meterRegistry, Duration.ofMinutes(1), 32, 4);
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void subscriptionIsReachableFromItsBet() {
+        when(betRepository.existsById(any())).thenReturn(true);
+
+        hub.subscribe(1L);
+        hub.subscribe(1L);
+
+        assertThat(hub.subscribers(1L)).isEqualTo(2);
+        assertThat(hub.subscribers(2L)).isZero();
+    }
+
+    // Подписчики одного пари непрерывно приходят и уходят (закрытие соединения клиентом):
+    // подписка не должна попасть в набор, который remove уже выбросил из карты
+    @Test
+    void subscribeRacingWithRemovalIsNotLost() throws Exception {
+        when(betRepository.existsById(any())).thenReturn(true);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CHURN_MILLIS);
+
+        List<Future<?>> churners = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CHURNERS; i++) {
+                churners.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        disconnect(hub.subscribe(1L));
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> churner : churners) {
+            churner.get();
+        }
+
+        assertThat(openSubscriptions()).isZero();
+        assertThat(hub.subscribers(1L)).isZero();
+    }
+
+    private long openSubscriptions() {
+        return (long) meterRegistry.get("bets.events.subscribers").gauge().value();
+    }
+
+    // Закрытие соединения клиентом: контейнер вызывает колбэк onCompletion эмиттера.
+    // Обработчик контейнера у ResponseBodyEmitter пакетный, поэтому подключается через прокси
+    private static void disconnect(SseEmitter emitter) throws Exception {
+        Class<?> handlerType = Class.forName(ResponseBodyEmitter.class.getName() + "$Handler");
+        List<Runnable> onCompletion = new ArrayList<>();
+        Object handler = Proxy.newProxyInstance(handlerType.getClassLoader(), new Class<?>[]{handlerType},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("onCompletion")) {
+                        onCompletion.add((Runnable) args[0]);
+                    }
+                    return null;
+                });
+        Method initialize = ResponseBodyEmitter.class.getDeclaredMethod("initialize", handlerType);
+        initialize.setAccessible(true);
+        initialize.invoke(emitter, handler);
+        onCompletion.forEach(Runnable::run);
+    }
+}
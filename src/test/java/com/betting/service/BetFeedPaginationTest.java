@@ -0,0 +1,103 @@
+package com.betting.service;
+
+import com.betting.TestUsers;
+import com.betting.dto.request.CreateBetRequest;
+import com.betting.dto.response.BetResponse;
+import com.betting.dto.response.BetSummary;
+import com.betting.dto.response.CursorPageResponse;
+import com.betting.repository.UserRepository;
+import com.betting.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Лента по курсору проходит все пари ровно один раз, в том числе при равных значениях ключа сортировки.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BetFeedPaginationTest {
+
+    private static final int BET_COUNT = 11;
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> created = new ArrayList<>();
+    private AuthenticatedUser creator;
+
+    @BeforeEach
+    void setUp() {
+        creator = AuthenticatedUser.fromUser(TestUsers.create(userRepository));
+
+        // Пачка создаётся в одной транзакции, у части пари совпадает дата начала
+        LocalDateTime startDate = LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.HOURS);
+        List<CreateBetRequest> requests = new ArrayList<>();
+        for (int i = 0; i < BET_COUNT; i++) {
+            CreateBetRequest request = new CreateBetRequest();
+            request.setTitle("Пари " + i);
+            request.setDescription("Описание");
+            request.setStartDate(startDate.plusHours(i / 4));
+            request.setDuration(1);
+            requests.add(request);
+        }
+        betService.createBets(requests, creator).forEach(bet -> created.add(bet.getId()));
+    }
+
+    // Пачка создаётся настоящей транзакцией сервиса, поэтому данные удаляются явно
+    @AfterEach
+    void tearDown() {
+        created.forEach(id -> betService.deleteBet(id, creator));
+        userRepository.deleteById(creator.getId());
+        created.clear();
+    }
+
+    @Test
+    void createdAtFeedVisitsEveryBetOnce() {
+        List<Long> seen = walk(after -> betService.getBetFeed(null, "createdAt", after, 3), BetResponse::getId);
+
+        assertThat(seen).doesNotHaveDuplicates().containsAll(created);
+        assertThat(seen.subList(0, BET_COUNT)).containsExactlyElementsOf(created.reversed());
+    }
+
+    @Test
+    void startDateFeedVisitsEveryBetOnce() {
+        List<Long> seen = walk(after -> betService.getBetFeed("open", "startDate", after, 3), BetResponse::getId);
+
+        assertThat(seen).doesNotHaveDuplicates().containsAll(created);
+    }
+
+    @Test
+    void summaryFeedMatchesFullFeed() {
+        List<Long> full = walk(after -> betService.getBetFeed(null, "startDate", after, 4), BetResponse::getId);
+        List<Long> summaries = walk(after -> betService.getBetSummaryFeed(null, "startDate", after, 4, "id"),
+                BetSummary::getId);
+
+        assertThat(summaries).containsExactlyElementsOf(full);
+    }
+
+    private static <T> List<Long> walk(Function<String, CursorPageResponse<T>> feed, Function<T, Long> id) {
+        List<Long> seen = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPageResponse<T> page = feed.apply(after);
+            page.getContent().forEach(item -> seen.add(id.apply(item)));
+            after = page.getNextCursor();
+        } while (after != null);
+        return seen;
+    }
+}
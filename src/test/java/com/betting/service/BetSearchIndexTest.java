@@ -0,0 +1,91 @@
+package com.betting.service;
+
+import com.betting.entity.BetStatus;
+import com.betting.repository.BetRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BetSearchIndexTest {
+
+    private final BetRepository betRepository = mock(BetRepository.class);
+    private final BetSearchIndex index = new BetSearchIndex(betRepository, 100, Duration.ofMinutes(1));
+
+    @Test
+    void searchesByWordPrefixAndRanksTitleHigher() {
+        index.index(1L, "Футбол сегодня", "матч", BetStatus.OPEN);
+        index.index(2L, "Погода", "завтра футбол", BetStatus.OPEN);
+
+        assertThat(index.search("фут", null)).containsExactly(1L, 2L);
+        assertThat(index.search("бол", null)).isEmpty();
+        assertThat(index.search("фут", BetStatus.IN_PROGRESS)).isEmpty();
+    }
+
+    @Test
+    void eventDuringRebuildIsNotOverwrittenByOlderRow() {
+        when(betRepository.findSearchChunk(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            // Изменение закоммичено после того, как перестройка прочитала строку
+            index.index(1L, "Новое название", null, BetStatus.IN_PROGRESS);
+            return rows(new Object[]{1L, "Старое название", null, BetStatus.OPEN});
+        });
+
+        index.rebuild();
+
+        assertThat(index.search("новое", BetStatus.IN_PROGRESS)).containsExactly(1L);
+        assertThat(index.search("старое", null)).isEmpty();
+    }
+
+    @Test
+    void deletionDuringRebuildIsKept() {
+        when(betRepository.findSearchChunk(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            index.remove(1L);
+            return rows(new Object[]{1L, "Удалённое", null, BetStatus.OPEN});
+        });
+
+        index.rebuild();
+
+        assertThat(index.search("удал", null)).isEmpty();
+    }
+
+    @Test
+    void catchUpIndexesChangesFromOtherInstances() {
+        when(betRepository.findSearchChunk(anyLong(), any(Limit.class))).thenReturn(List.of());
+        index.rebuild();
+        LocalDateTime updatedAt = LocalDateTime.now();
+        when(betRepository.findSearchChangesChunk(any(LocalDateTime.class), anyLong(), any(Limit.class)))
+                .thenReturn(rows(new Object[]{7L, "Теннис", "финал", BetStatus.OPEN, updatedAt}));
+
+        index.catchUp();
+
+        assertThat(index.search("тен", null)).containsExactly(7L);
+    }
+
+    @Test
+    void catchUpDoesNotResurrectRemovedBet() {
+        when(betRepository.findSearchChunk(anyLong(), any(Limit.class))).thenReturn(List.of());
+        index.rebuild();
+        when(betRepository.findSearchChangesChunk(any(LocalDateTime.class), anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    index.remove(7L);
+                    return rows(new Object[]{7L, "Теннис", null, BetStatus.OPEN, LocalDateTime.now()});
+                });
+
+        index.catchUp();
+
+        assertThat(index.search("тен", null)).isEmpty();
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
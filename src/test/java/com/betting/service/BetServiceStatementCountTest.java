@@ -0,0 +1,133 @@
+package com.betting.service;
+
+import com.betting.TestUsers;
+import com.betting.dto.request.CreateBetRequest;
+import com.betting.dto.request.VoteRequest;
+import com.betting.dto.response.BetResponse;
+import com.betting.repository.UserRepository;
+import com.betting.security.AuthenticatedUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL-запросов на чтение не зависит от размера страницы и от числа пользователей и голосов пари.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BetServiceStatementCountTest {
+
+    private static final int BET_COUNT = 30;
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Long> betIds = new ArrayList<>();
+    private final List<AuthenticatedUser> users = new ArrayList<>();
+    private AuthenticatedUser creator;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        creator = newUser();
+        AuthenticatedUser participant = newUser();
+        AuthenticatedUser observer = newUser();
+
+        for (int i = 0; i < BET_COUNT; i++) {
+            BetResponse bet = betService.createBet(newBetRequest(i), creator);
+            betIds.add(bet.getId());
+            // Каждое второе пари — со всеми участниками и разными голосами (статус CONFLICT)
+            if (i % 2 == 0) {
+                betService.joinBet(bet.getId(), "PARTICIPANT", participant);
+                betService.joinBet(bet.getId(), "OBSERVER", observer);
+                betService.vote(bet.getId(), new VoteRequest(true), participant);
+                betService.vote(bet.getId(), new VoteRequest(false), observer);
+            }
+        }
+    }
+
+    // Тест не транзакционный (замеряются запросы настоящих транзакций сервиса), поэтому данные удаляются явно
+    @AfterEach
+    void tearDown() {
+        betIds.forEach(id -> betService.deleteBet(id, creator));
+        userRepository.deleteAllById(users.stream().map(AuthenticatedUser::getId).toList());
+        betIds.clear();
+        users.clear();
+    }
+
+    @Test
+    void getBetsUsesSameStatementCountForAnyPageSize() {
+        long small = statementsOf(() -> betService.getBets(null, null, PageRequest.of(0, 5, Sort.by("id"))));
+        long large = statementsOf(() -> betService.getBets(null, null, PageRequest.of(0, 20, Sort.by("id"))));
+        long filtered = statementsOf(() -> betService.getBets("conflict", null, PageRequest.of(0, 5, Sort.by("id"))));
+
+        // Страница, COUNT и голоса всей страницы
+        assertThat(small).isEqualTo(3);
+        assertThat(large).isEqualTo(small);
+        assertThat(filtered).isEqualTo(small);
+    }
+
+    @Test
+    void getBetsLoadsUsersAndVotesOfPage() {
+        Page<BetResponse> page = betService.getBets(null, null, PageRequest.of(0, 20, Sort.by("id")));
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getContent())
+                .filteredOn(bet -> bet.getParticipant() != null)
+                .allSatisfy(bet -> assertThat(bet.getVotes()).hasSize(2));
+    }
+
+    @Test
+    void getVersionedBetUsesSameStatementCountWithAndWithoutVotes() {
+        long withVotes = statementsOf(() -> betService.getVersionedBet(betIds.get(0)));
+        long withoutVotes = statementsOf(() -> betService.getVersionedBet(betIds.get(1)));
+
+        // Пари со всеми пользователями и голоса
+        assertThat(withVotes).isEqualTo(2);
+        assertThat(withoutVotes).isEqualTo(withVotes);
+    }
+
+    private long statementsOf(Supplier<?> call) {
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private AuthenticatedUser newUser() {
+        AuthenticatedUser user = AuthenticatedUser.fromUser(TestUsers.create(userRepository));
+        users.add(user);
+        return user;
+    }
+
+    private static CreateBetRequest newBetRequest(int index) {
+        CreateBetRequest request = new CreateBetRequest();
+        request.setTitle("Пари " + index);
+        request.setDescription("Описание пари " + index);
+        request.setStartDate(LocalDateTime.now().plusDays(1));
+        request.setDuration(24);
+        return request;
+    }
+}
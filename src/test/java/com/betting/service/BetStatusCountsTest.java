@@ -0,0 +1,194 @@
+package com.betting.service;
+
+import com.betting.TestUsers;
+import com.betting.dto.request.CreateBetRequest;
+import com.betting.entity.BetStatus;
+import com.betting.entity.BetStatusCount;
+import com.betting.repository.BetRepository;
+import com.betting.repository.BetStatusCountRepository;
+import com.betting.repository.UserRepository;
+import com.betting.security.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Счётчики статусов пишутся вместе с переходами и только при их коммите,
+ * а сверка исправляет расхождение приращением, не затирая параллельные переходы.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BetStatusCountsTest {
+
+    @Autowired
+    private BetStatusCounts betStatusCounts;
+
+    @Autowired
+    private BetStatusCountRepository countRepository;
+
+    @Autowired
+    private BetRepository betRepository;
+
+    @Autowired
+    private SchedulerLeaseService leaseService;
+
+    @Autowired
+    private BetService betService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TransactionTemplate transactionTemplate;
+    private AuthenticatedUser creator;
+    private final List<Long> betIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        creator = AuthenticatedUser.fromUser(TestUsers.create(userRepository));
+        // Начинаем с таблицы, совпадающей с bets, и снимка, совпадающего с таблицей
+        betStatusCounts.reconcile();
+        betStatusCounts.refresh();
+    }
+
+    // Тест не транзакционный (проверяются настоящие коммиты и откаты), поэтому данные удаляются явно,
+    // а подставленные переходы без пари убирает сверка
+    @AfterEach
+    void tearDown() {
+        betIds.forEach(id -> betService.deleteBet(id, creator));
+        userRepository.deleteById(creator.getId());
+        betStatusCounts.reconcile();
+        betStatusCounts.refresh();
+    }
+
+    @Test
+    void rolledBackTransitionTouchesNeitherTableNorSnapshot() {
+        long storedOpen = stored(BetStatus.OPEN);
+        long snapshotOpen = snapshot(BetStatus.OPEN);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            betStatusCounts.onBetChanged(changed(BetChangedEvent.Type.CREATED, null, BetStatus.OPEN));
+            status.setRollbackOnly();
+        });
+
+        assertThat(stored(BetStatus.OPEN)).isEqualTo(storedOpen);
+        assertThat(snapshot(BetStatus.OPEN)).isEqualTo(snapshotOpen);
+    }
+
+    @Test
+    void transactionWritesOneUpdatePerStatus() {
+        long storedInProgress = stored(BetStatus.IN_PROGRESS);
+        long storedImplemented = stored(BetStatus.IMPLEMENTED);
+        long snapshotImplemented = snapshot(BetStatus.IMPLEMENTED);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Порция истёкших пари
+            for (int i = 0; i < 5; i++) {
+                betStatusCounts.onBetChanged(changed(BetChangedEvent.Type.EXPIRED,
+                        BetStatus.IN_PROGRESS, BetStatus.IMPLEMENTED));
+            }
+        });
+
+        // Уменьшение IN_PROGRESS и увеличение IMPLEMENTED
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(stored(BetStatus.IN_PROGRESS)).isEqualTo(storedInProgress - 5);
+        assertThat(stored(BetStatus.IMPLEMENTED)).isEqualTo(storedImplemented + 5);
+        assertThat(snapshot(BetStatus.IMPLEMENTED)).isEqualTo(snapshotImplemented + 5);
+    }
+
+    @Test
+    void reconcileCorrectsDriftAndKeepsConcurrentTransition() {
+        long actualOpen = actual(BetStatus.OPEN);
+        // Расхождение: приращения, не соответствующие ни одному пари
+        transactionTemplate.executeWithoutResult(status -> countRepository.increment(BetStatus.OPEN, 7));
+
+        // Пока сверка держит свой снимок, другой запрос создаёт пари и коммитит приращение OPEN
+        AtomicBoolean concurrentCreated = new AtomicBoolean();
+        BetStatusCountRepository interleaved = mock(BetStatusCountRepository.class, delegatesTo(countRepository));
+        doAnswer(invocation -> {
+            List<BetStatusCount> rows = countRepository.findAll();
+            if (concurrentCreated.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> betIds.add(betService.createBet(newBetRequest(), creator).getId()))
+                        .join();
+            }
+            return rows;
+        }).when(interleaved).findAll();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BetStatusCounts reconciler = new BetStatusCounts(betRepository, interleaved, leaseService,
+                transactionManager, meterRegistry, Duration.ofMinutes(5));
+
+        reconciler.reconcile();
+
+        // Строку счётчика изменили после снимка сверки: сверка откладывается и ничего не затирает
+        assertThat(concurrentCreated).isTrue();
+        assertThat(meterRegistry.get("bets.stats.drift").tag("status", "OPEN").gauge().value()).isEqualTo(-7);
+        assertThat(meterRegistry.get("bets.stats.corrections").counter().count()).isZero();
+        assertThat(actual(BetStatus.OPEN)).isEqualTo(actualOpen + 1);
+        assertThat(stored(BetStatus.OPEN)).isEqualTo(actualOpen + 7 + 1);
+
+        // Следующая сверка убирает расхождение и сохраняет приращение параллельного перехода
+        reconciler.reconcile();
+
+        assertThat(meterRegistry.get("bets.stats.drift").tag("status", "OPEN").gauge().value()).isEqualTo(-7);
+        assertThat(meterRegistry.get("bets.stats.corrections").counter().count()).isEqualTo(1);
+        assertThat(stored(BetStatus.OPEN)).isEqualTo(actualOpen + 1);
+    }
+
+    private long stored(BetStatus status) {
+        return countRepository.findById(status).map(BetStatusCount::getCount).orElse(0L);
+    }
+
+    private long actual(BetStatus status) {
+        return betRepository.countByStatus().stream()
+                .filter(row -> row[0] == status)
+                .mapToLong(row -> (Long) row[1])
+                .findFirst()
+                .orElse(0);
+    }
+
+    private long snapshot(BetStatus status) {
+        return betStatusCounts.getStats().getCounts().get(status);
+    }
+
+    private static BetChangedEvent changed(BetChangedEvent.Type type, BetStatus previousStatus, BetStatus status) {
+        return new BetChangedEvent(type, 0L, "Пари", null, null, 24, previousStatus, status);
+    }
+
+    private static CreateBetRequest newBetRequest() {
+        CreateBetRequest request = new CreateBetRequest();
+        request.setTitle("Пари");
+        request.setDescription("Описание пари");
+        request.setStartDate(LocalDateTime.now().plusDays(1));
+        request.setDuration(24);
+        return request;
+    }
+}
@@ -0,0 +1,174 @@
+package com.betting.service;
+
+import com.betting.entity.BetStatus;
+import com.betting.exception.NotFoundException;
+import com.betting.repository.BetRepository;
+import com.betting.repository.CommentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.betting.service.CommentTailTest.comment;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CommentTailCacheTest {
+
+    private static final int TAIL_SIZE = 3;
+    private static final Duration TTL = Duration.ofMillis(300);
+
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private final BetRepository betRepository = mock(BetRepository.class);
+    private final CommentTailCache cache = new CommentTailCache(commentRepository, betRepository,
+            new SimpleMeterRegistry(), TAIL_SIZE, 100, TTL);
+
+    @Test
+    void hitDoesNotTouchDatabase() {
+        when(commentRepository.findLatest(eq(1L), any(Limit.class))).thenReturn(List.of());
+        when(betRepository.existsById(1L)).thenReturn(true);
+
+        cache.get(1L);
+        CommentTail.Snapshot snapshot = cache.get(1L);
+
+        assertThat(snapshot.entries()).isEmpty();
+        assertThat(snapshot.hasOlder()).isFalse();
+        verify(commentRepository, times(1)).findLatest(eq(1L), any(Limit.class));
+        verify(betRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void existsIsCheckedOnlyForEmptyTail() {
+        when(commentRepository.findLatest(eq(1L), any(Limit.class))).thenReturn(rows(2, 1));
+
+        assertThat(ids(cache.get(1L))).containsExactly(2L, 1L);
+        verify(betRepository, never()).existsById(any());
+    }
+
+    @Test
+    void missingBetIsNotCached() {
+        when(commentRepository.findLatest(eq(1L), any(Limit.class))).thenReturn(List.of());
+        when(betRepository.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> cache.get(1L)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> cache.get(1L)).isInstanceOf(NotFoundException.class);
+
+        verify(commentRepository, times(2)).findLatest(eq(1L), any(Limit.class));
+    }
+
+    @Test
+    void extraRowMeansOlderComments() {
+        when(commentRepository.findLatest(eq(1L), any(Limit.class))).thenReturn(rows(4, 3, 2, 1));
+
+        CommentTail.Snapshot snapshot = cache.get(1L);
+
+        assertThat(ids(snapshot)).containsExactly(4L, 3L, 2L);
+        assertThat(snapshot.hasOlder()).isTrue();
+    }
+
+    @Test
+    void appendAfterCommitReachesCachedTail() {
+        when(commentRepository.findLatest(eq(1L), any(Limit.class))).thenReturn(rows(2, 1));
+        cache.get(1L);
+
+        cache.onCommentAdded(new CommentAddedEvent(1L, comment(3)));
+        cache.onCommentAdded(new CommentAddedEvent(1L, comment(4)));
+
+        CommentTail.Snapshot snapshot = cache.get(1L);
+        assertThat(ids(snapshot)).containsExactly(4L, 3L, 2L);
+        assertThat(snapshot.hasOlder()).isTrue();
+        verify(commentRepository, times(1)).findLatest(eq(1L), any(Limit.class));
+    }
+
+    // Загрузка прочитала БД до коммита комментария, а событие пришло раньше установки буфера:
+    // такой буфер пропустил бы комментарий и не кладётся в кэш
+    @Test
+    void loadRacingWithAppendIsNotInstalled() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(commentRepository.findLatest(eq(1L), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    await(release);
+                    return rows(2, 1);
+                })
+                .thenReturn(rows(3, 2, 1));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<CommentTail.Snapshot> stale = executor.submit(() -> cache.get(1L));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            cache.onCommentAdded(new CommentAddedEvent(1L, comment(3)));
+            release.countDown();
+            assertThat(ids(stale.get(5, TimeUnit.SECONDS))).containsExactly(2L, 1L);
+        }
+
+        assertThat(ids(cache.get(1L))).containsExactly(3L, 2L, 1L);
+        assertThat(ids(cache.get(1L))).containsExactly(3L, 2L, 1L);
+        verify(commentRepository, times(2)).findLatest(eq(1L), any(Limit.class));
+    }
+
+    @Test
+    void deletedBetIsEvicted() {
+        when(commentRepository.findLatest(eq(1L), any(Limit.class))).thenReturn(rows(1));
+        cache.get(1L);
+
+        cache.onBetChanged(new BetChangedEvent(BetChangedEvent.Type.DELETED, 1L, "Пари", null, null, 1,
+                BetStatus.OPEN, BetStatus.OPEN));
+        when(commentRepository.findLatest(eq(1L), any(Limit.class))).thenReturn(List.of());
+        when(betRepository.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> cache.get(1L)).isInstanceOf(NotFoundException.class);
+    }
+
+    // Срок считается от загрузки: локальные добавления его не продлевают
+    @Test
+    void tailExpiresAfterLoadDespiteAppends() throws InterruptedException {
+        when(commentRepository.findLatest(eq(1L), any(Limit.class))).thenReturn(rows(1));
+        cache.get(1L);
+
+        Thread.sleep(TTL.toMillis() / 2);
+        cache.onCommentAdded(new CommentAddedEvent(1L, comment(2)));
+        cache.get(1L);
+        verify(commentRepository, times(1)).findLatest(eq(1L), any(Limit.class));
+
+        Thread.sleep(TTL.toMillis() / 2 + 100);
+        cache.get(1L);
+        verify(commentRepository, times(2)).findLatest(eq(1L), any(Limit.class));
+    }
+
+    private static List<Object[]> rows(long... ids) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id : ids) {
+            CommentEntry entry = comment(id);
+            rows.add(new Object[]{entry.id(), entry.text(), entry.authorId(), entry.createdAt()});
+        }
+        return rows;
+    }
+
+    private static List<Long> ids(CommentTail.Snapshot snapshot) {
+        return snapshot.entries().stream().map(CommentEntry::id).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.betting.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommentTailTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+    @Test
+    void appendWrapsAroundAndKeepsFeedOrder() {
+        CommentTail tail = new CommentTail(3, List.of(comment(2), comment(1)), false);
+
+        for (long id = 3; id <= 7; id++) {
+            assertThat(tail.append(comment(id))).isTrue();
+        }
+
+        assertThat(ids(tail.snapshot())).containsExactly(7L, 6L, 5L);
+    }
+
+    @Test
+    void hasOlderTurnsOnWhenOldestIsPushedOut() {
+        CommentTail tail = new CommentTail(3, List.of(comment(2), comment(1)), false);
+
+        tail.append(comment(3));
+        assertThat(tail.snapshot().hasOlder()).isFalse();
+
+        tail.append(comment(4));
+        assertThat(tail.snapshot().hasOlder()).isTrue();
+        assertThat(ids(tail.snapshot())).containsExactly(4L, 3L, 2L);
+    }
+
+    @Test
+    void loadedTailKeepsHasOlderFromDatabase() {
+        CommentTail tail = new CommentTail(3, List.of(comment(5), comment(4), comment(3)), true);
+
+        assertThat(tail.snapshot().hasOlder()).isTrue();
+        assertThat(ids(tail.snapshot())).containsExactly(5L, 4L, 3L);
+    }
+
+    @Test
+    void repeatedAppendIsIgnored() {
+        CommentTail tail = new CommentTail(3, List.of(comment(2), comment(1)), false);
+
+        assertThat(tail.append(comment(2))).isTrue();
+        assertThat(tail.append(comment(1))).isTrue();
+
+        assertThat(ids(tail.snapshot())).containsExactly(2L, 1L);
+    }
+
+    // Вставка в середину кольца не поддерживается: кэш выбрасывает такой буфер
+    @Test
+    void olderUnknownCommentIsRejected() {
+        CommentTail tail = new CommentTail(3, List.of(comment(5), comment(3)), false);
+
+        assertThat(tail.append(comment(4))).isFalse();
+        assertThat(ids(tail.snapshot())).containsExactly(5L, 3L);
+    }
+
+    @Test
+    void sameTimeIsOrderedById() {
+        CommentTail tail = new CommentTail(3, List.of(), false);
+        LocalDateTime now = START.plusMinutes(1);
+
+        tail.append(new CommentEntry(10L, "a", 1L, now));
+        assertThat(tail.append(new CommentEntry(11L, "b", 1L, now))).isTrue();
+        assertThat(tail.append(new CommentEntry(9L, "c", 1L, now))).isFalse();
+
+        assertThat(ids(tail.snapshot())).containsExactly(11L, 10L);
+    }
+
+    static CommentEntry comment(long id) {
+        return new CommentEntry(id, "Комментарий " + id, 1L, START.plusSeconds(id));
+    }
+
+    private static List<Long> ids(CommentTail.Snapshot snapshot) {
+        return snapshot.entries().stream().map(CommentEntry::id).toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.betting.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> flight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void concurrentCallsShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> flight.execute(1L, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "bet";
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<String> second = executor.submit(() -> flight.execute(1L, () -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+            waitForCollapsed(1);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("bet");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("bet");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void waitersReceiveLoaderError() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> flight.execute(1L, () -> {
+                loading.countDown();
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<String> second = executor.submit(() -> flight.execute(1L, () -> "other"));
+            waitForCollapsed(1);
+            release.countDown();
+
+            assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void resultIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute(1L, () -> "v" + loads.incrementAndGet());
+        String second = flight.execute(1L, () -> "v" + loads.incrementAndGet());
+
+        assertThat(second).isEqualTo("v2");
+    }
+
+    @Test
+    void forgetDetachesRunningLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> stale = executor.submit(() -> flight.execute(1L, () -> {
+                loading.countDown();
+                await(release);
+                return "stale";
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            flight.forget(1L);
+
+            assertThat(flight.execute(1L, () -> "fresh")).isEqualTo("fresh");
+            release.countDown();
+            assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+        }
+    }
+
+    private void waitForCollapsed(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("bets.singleflight.collapsed", "name", "test").count() < expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.betting.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void firesOnlyWhenDeadlineReached() {
+        TimingWheel wheel = new TimingWheel(TICK, 3, START);
+        wheel.schedule(1, START + 5 * TICK);
+
+        assertThat(wheel.advance(START + 4 * TICK)).isEmpty();
+        assertThat(wheel.advance(START + 5 * TICK)).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void roundsDeadlineUpToNextTick() {
+        TimingWheel wheel = new TimingWheel(TICK, 3, START);
+        wheel.schedule(1, START + TICK + 1);
+
+        assertThat(wheel.advance(START + TICK)).isEmpty();
+        assertThat(wheel.advance(START + 2 * TICK)).containsExactly(1L);
+    }
+
+    @Test
+    void overdueDeadlineFiresOnNextTick() {
+        TimingWheel wheel = new TimingWheel(TICK, 3, START);
+        wheel.schedule(1, START - 10 * TICK);
+
+        assertThat(wheel.advance(START + TICK)).containsExactly(1L);
+    }
+
+    @Test
+    void cascadesFromUpperLevels() {
+        TimingWheel wheel = new TimingWheel(TICK, 3, START);
+        long far = (long) TimingWheel.SLOTS * TimingWheel.SLOTS + 7;
+        wheel.schedule(1, START + 100 * TICK);
+        wheel.schedule(2, START + far * TICK);
+
+        List<Long> fired = new ArrayList<>();
+        for (long tick = 1; tick < far; tick++) {
+            fired.addAll(wheel.advance(START + tick * TICK));
+        }
+        assertThat(fired).containsExactly(1L);
+        assertThat(wheel.advance(START + far * TICK)).containsExactly(2L);
+    }
+
+    @Test
+    void deadlineBeyondHorizonIsKept() {
+        TimingWheel wheel = new TimingWheel(TICK, 2, START);
+        long far = 3L * TimingWheel.SLOTS * TimingWheel.SLOTS;
+        wheel.schedule(1, START + far * TICK);
+
+        assertThat(wheel.advance(START + (far - 1) * TICK)).isEmpty();
+        assertThat(wheel.advance(START + far * TICK)).containsExactly(1L);
+    }
+
+    @Test
+    void cancelledTimerDoesNotFire() {
+        TimingWheel wheel = new TimingWheel(TICK, 3, START);
+        wheel.schedule(1, START + 3 * TICK);
+        wheel.cancel(1);
+
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advance(START + 10 * TICK)).isEmpty();
+    }
+
+    @Test
+    void rescheduleReplacesPreviousDeadline() {
+        TimingWheel wheel = new TimingWheel(TICK, 3, START);
+        wheel.schedule(1, START + 3 * TICK);
+        wheel.schedule(1, START + 200 * TICK);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(START + 199 * TICK)).isEmpty();
+        assertThat(wheel.advance(START + 200 * TICK)).containsExactly(1L);
+    }
+}